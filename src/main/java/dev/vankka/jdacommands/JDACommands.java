@@ -1,43 +1,97 @@
 package dev.vankka.jdacommands;
 
+import dev.vankka.jdacommands.coordination.LocalCoordinationBackend;
+import dev.vankka.jdacommands.model.LocaleProvider;
 import dev.vankka.jdacommands.model.PrefixProvider;
+import dev.vankka.jdacommands.model.ResponseSink;
 import dev.vankka.jdacommands.model.command.*;
+import dev.vankka.jdacommands.model.coordination.CoordinationBackend;
 import dev.vankka.jdacommands.model.processor.CommandPreprocessor;
 import dev.vankka.jdacommands.model.processor.EventPreprocessor;
 import dev.vankka.jdacommands.model.processor.ResultProcessor;
+import dev.vankka.jdacommands.model.trace.TraceListener;
+import dev.vankka.jdacommands.model.trace.TraceStage;
+import dev.vankka.jdacommands.object.ArgumentList;
+import dev.vankka.jdacommands.object.CommandIndex;
+import dev.vankka.jdacommands.object.CommandTrace;
 import dev.vankka.jdacommands.object.Emoji;
+import dev.vankka.jdacommands.object.MessageBundle;
+import dev.vankka.jdacommands.object.MessageChunker;
+import dev.vankka.jdacommands.object.Paginator;
+import dev.vankka.jdacommands.response.JDAResponseSink;
+import dev.vankka.jdacommands.scheduling.CommandGovernor;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
+import net.dv8tion.jda.api.events.message.react.GenericMessageReactionEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEvent;
 import net.dv8tion.jda.api.exceptions.PermissionException;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings({"unused", "WeakerAccess"})
-public class JDACommands implements EventPreprocessor, CommandPreprocessor, ResultProcessor, PrefixProvider {
+public class JDACommands implements EventPreprocessor, CommandPreprocessor, ResultProcessor, PrefixProvider,
+        LocaleProvider {
 
     private final List<CommandCategory> commandCategories = new ArrayList<>();
+    private final Map<Long, Map<String, ReactionTrigger>> reactionTriggers = Collections.synchronizedMap(
+            new LinkedHashMap<Long, Map<String, ReactionTrigger>>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Map<String, ReactionTrigger>> eldest) {
+                    return size() > maxReactionTriggerMessages;
+                }
+            });
+    private final Map<Long, Paginator> paginators = Collections.synchronizedMap(
+            new LinkedHashMap<Long, Paginator>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Paginator> eldest) {
+                    return size() > maxActivePaginators;
+                }
+            });
+    private final Map<Locale, MessageBundle> messageBundles = new ConcurrentHashMap<>();
+    private final List<TraceListener> traceListeners = new CopyOnWriteArrayList<>();
+    private volatile CommandIndex commandIndex = CommandIndex.EMPTY;
     private final CommandListener commandListener = new CommandListener();
     private final ShardManager shardManager;
     private final JDA jda;
 
     private String defaultPrefix = "!";
     private boolean allowMentionAsPrefix = true;
+    private int maxActivePaginators = 100;
+    private int maxReactionTriggerMessages = 1000;
+    private Locale defaultLocale = Locale.ENGLISH;
+    private String messageBundleName = MessageBundle.DEFAULT_BASE_NAME;
+    private CoordinationBackend coordinationBackend = new LocalCoordinationBackend();
+    private long deduplicationWindowMillis = 0L;
+    private double traceSampleRate = 0D;
+    private boolean recycleEvents = false;
+    private CommandGovernor commandGovernor = null;
 
     private EventPreprocessor eventPreprocessor = this;
     private CommandPreprocessor commandPreprocessor = this;
     private ResultProcessor resultProcessor = this;
     private PrefixProvider prefixProvider = this;
+    private LocaleProvider localeProvider = this;
+    private ResponseSink responseSink = new JDAResponseSink();
 
     private String botOwnerId = "";
+    private long botOwnerIdLong = 0L;
 
     public JDACommands(ShardManager shardManager) {
         this.shardManager = shardManager;
@@ -60,6 +114,7 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
 
         ApplicationInfo applicationInfo = Objects.requireNonNull(jda).retrieveApplicationInfo().complete();
         botOwnerId = applicationInfo.getOwner().getId();
+        botOwnerIdLong = applicationInfo.getOwner().getIdLong();
     }
 
     /**
@@ -72,7 +127,8 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
     }
 
     /**
-     * Gets the list of command categories in this JDACommands instance
+     * Gets the list of command categories in this JDACommands instance,
+     * {@link #reloadCommands()} should be called after modifying it directly
      *
      * @return the list of command categories in this JDACommands instance
      */
@@ -87,6 +143,7 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
      */
     public void addCommandCategories(CommandCategory... commandCategories) {
         this.commandCategories.addAll(Arrays.asList(commandCategories));
+        reloadCommands();
     }
 
     /**
@@ -96,6 +153,136 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
      */
     public void removeCommandCategories(CommandCategory... commandCategories) {
         this.commandCategories.removeAll(Arrays.asList(commandCategories));
+        reloadCommands();
+    }
+
+    /**
+     * Updates the command index, should be called if the commands of a category change.
+     * Only commands & categories that changed are recompiled
+     */
+    public synchronized void reloadCommands() {
+        this.commandIndex = commandIndex.update(commandCategories);
+    }
+
+    /**
+     * Gets the current command index, with the compiled properties & visibility of the registered commands
+     *
+     * @return the command index
+     */
+    public CommandIndex getCommandIndex() {
+        return commandIndex;
+    }
+
+    /**
+     * Checks if a command can be used in the context of a event, based on its {@link CommandProperty properties}
+     *
+     * @param command the command
+     * @param event   the event
+     * @return true if the command is usable in the guild or direct message by the author of the event
+     */
+    public boolean isCommandVisible(Command command, CommandEvent event) {
+        return commandIndex.isVisible(command, event.getGuildIdLong() != 0L, event.getAuthorIdLong() == botOwnerIdLong);
+    }
+
+    /**
+     * Counts the commands of a category that can be used in the context of a event
+     *
+     * @param commandCategory the category
+     * @param event           the event
+     * @return the amount of commands usable in the guild or direct message by the author of the event
+     */
+    public int countVisibleCommands(CommandCategory commandCategory, CommandEvent event) {
+        return commandIndex.countVisible(commandCategory, event.getGuildIdLong() != 0L,
+                event.getAuthorIdLong() == botOwnerIdLong);
+    }
+
+    /**
+     * Gets the id of a registered command, the first word of its first alias
+     *
+     * @param command the command
+     * @return the id of the command, null if the command isn't registered
+     */
+    @Nullable
+    public String getCommandId(Command command) {
+        return commandIndex.getCommandId(command);
+    }
+
+    /**
+     * Gets a command by its id, the id is the first word of any of the command's aliases (case insensitive)
+     *
+     * @param commandId the command id
+     * @return the command or null if no command matched
+     */
+    @Nullable
+    public Command getCommand(String commandId) {
+        return commandIndex.getCommand(commandId.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Dispatches a command directly by its id, skipping prefix matching & tokenization.
+     * The {@link CommandPreprocessor} & {@link ResultProcessor} are used like they are for messages
+     *
+     * @param commandId the command id
+     * @param event     the event to dispatch the command with
+     * @return true if a command was found for the id
+     */
+    public boolean dispatch(String commandId, CommandEvent event) {
+        if (event.getTrace() == null)
+            event.setTrace(startTrace(event.getSource()));
+
+        Command command = getCommand(commandId);
+        if (command == null)
+            return false;
+
+        markTrace(event.getTrace(), command, TraceStage.COMMAND_RESOLVED);
+        event.setCommandId(getCommandId(command));
+        commandPreprocessor.preprocessCommand(event, command);
+        return true;
+    }
+
+    /**
+     * Dispatches a pre-tokenized interaction payload.
+     *
+     * @param commandId the command id
+     * @param arguments the arguments the command will receive
+     * @param channel   the channel to respond in
+     * @param user      the user that triggered the interaction
+     * @param member    the member that triggered the interaction, may be null
+     * @return true if a command was found for the id
+     */
+    public boolean dispatchInteraction(String commandId, List<String> arguments, MessageChannel channel,
+                                       User user, @Nullable Member member) {
+        Guild guild = channel instanceof TextChannel ? ((TextChannel) channel).getGuild() : null;
+        String prefix = prefixProvider.providePrefix(guild, defaultPrefix);
+
+        return dispatch(commandId, new CommandEvent(channel.getJDA(), channel, user, member,
+                this, new ArrayList<>(arguments), prefix));
+    }
+
+    /**
+     * Adds a reaction trigger to a message sent by the bot, adding the reaction to the message will run the command.
+     * Triggers are removed when the message is deleted, with {@link #removeReactionTriggers(long)} or when more than
+     * {@link #setMaxReactionTriggerMessages(int)} messages have triggers (least recently used first)
+     *
+     * @param message         the message sent by the bot
+     * @param emoji           the unicode emoji or custom emote id
+     * @param reactionTrigger the command to dispatch
+     */
+    public void addReactionTrigger(Message message, String emoji, ReactionTrigger reactionTrigger) {
+        if (message.getAuthor().getIdLong() != message.getJDA().getSelfUser().getIdLong())
+            throw new IllegalArgumentException("Reaction triggers can only be added to messages sent by the bot");
+
+        reactionTriggers.computeIfAbsent(message.getIdLong(), key -> new ConcurrentHashMap<>())
+                .put(emoji, reactionTrigger);
+    }
+
+    /**
+     * Removes all reaction triggers from the given message
+     *
+     * @param messageId the id of the message
+     */
+    public void removeReactionTriggers(long messageId) {
+        reactionTriggers.remove(messageId);
     }
 
     /**
@@ -125,6 +312,164 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
         this.allowMentionAsPrefix = allowMentionAsPrefix;
     }
 
+    /**
+     * Gets the default locale for this JDACommands instance
+     *
+     * @return the default locale in this JDACommands instance
+     */
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * Sets the default locale for this JDACommands instance
+     *
+     * @param defaultLocale the new default locale for this JDACommands instance
+     */
+    public void setDefaultLocale(Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+    }
+
+    /**
+     * Sets the resource bundle base name messages are loaded from, the bundle must contain all keys
+     * from the default bundle ({@value MessageBundle#DEFAULT_BASE_NAME})
+     *
+     * @param messageBundleName the resource bundle base name
+     */
+    public void setMessageBundleName(String messageBundleName) {
+        this.messageBundleName = messageBundleName;
+        this.messageBundles.clear();
+    }
+
+    /**
+     * Gets the message bundle for the given guild, bundles are compiled once per locale
+     *
+     * @param guild the guild, may be null
+     * @return the message bundle for the locale provided by the {@link LocaleProvider}
+     */
+    public MessageBundle getMessageBundle(@Nullable Guild guild) {
+        Locale locale = localeProvider.provideLocale(guild, defaultLocale);
+        return messageBundles.computeIfAbsent(locale, key -> MessageBundle.load(messageBundleName, key));
+    }
+
+    /**
+     * Gets the {@link CoordinationBackend} used for cooldowns & deduplication by the default {@link CommandPreprocessor}
+     *
+     * @return the coordination backend for this JDACommands instance
+     */
+    public CoordinationBackend getCoordinationBackend() {
+        return coordinationBackend;
+    }
+
+    /**
+     * Sets the {@link CoordinationBackend} used for cooldowns & deduplication by the default {@link CommandPreprocessor},
+     * use a shared backend when running multiple processes for the same bot
+     *
+     * @param coordinationBackend the new coordination backend for this JDACommands instance
+     */
+    public void setCoordinationBackend(CoordinationBackend coordinationBackend) {
+        this.coordinationBackend = coordinationBackend;
+    }
+
+    /**
+     * Sets how long a message is remembered to keep it from running commands more than once
+     * across processes sharing the {@link CoordinationBackend}
+     *
+     * @param deduplicationWindowMillis the window in milliseconds, 0 to disable deduplication (default)
+     */
+    public void setDeduplicationWindowMillis(long deduplicationWindowMillis) {
+        this.deduplicationWindowMillis = deduplicationWindowMillis;
+    }
+
+    /**
+     * Gets the {@link CommandGovernor} limiting concurrent command executions
+     *
+     * @return the command governor, null if executions aren't limited
+     */
+    @Nullable
+    public CommandGovernor getCommandGovernor() {
+        return commandGovernor;
+    }
+
+    /**
+     * Sets the {@link CommandGovernor} limiting concurrent command executions in the default {@link CommandPreprocessor},
+     * commands are executed on the governor's executors & commands that can't be executed or queued get a busy response
+     *
+     * @param commandGovernor the command governor, null to not limit executions (default)
+     */
+    public void setCommandGovernor(@Nullable CommandGovernor commandGovernor) {
+        this.commandGovernor = commandGovernor;
+    }
+
+    /**
+     * Whether or not {@link CommandEvent}s are reused for {@link CommandProperty#SYNCHRONOUS} commands
+     * executed from messages, reducing allocations when processing a large amount of commands
+     *
+     * @param recycleEvents true to recycle events
+     */
+    public void setRecycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+    }
+
+    /**
+     * Gets the fraction of command invocations that are traced
+     *
+     * @return the trace sample rate, between 0 and 1
+     */
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    /**
+     * Sets the fraction of command invocations that are traced & passed to the {@link TraceListener}s,
+     * tracing only happens if at least one listener is added
+     *
+     * @param traceSampleRate the sample rate, 0 to disable tracing (default), 1 to trace every invocation
+     */
+    public void setTraceSampleRate(double traceSampleRate) {
+        if (traceSampleRate < 0D || traceSampleRate > 1D)
+            throw new IllegalArgumentException("traceSampleRate must be between 0 and 1");
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    /**
+     * Adds a listener for sampled command traces
+     *
+     * @param traceListener the listener
+     */
+    public void addTraceListener(TraceListener traceListener) {
+        traceListeners.add(traceListener);
+    }
+
+    /**
+     * Removes a listener for sampled command traces
+     *
+     * @param traceListener the listener
+     */
+    public void removeTraceListener(TraceListener traceListener) {
+        traceListeners.remove(traceListener);
+    }
+
+    /**
+     * Sets the amount of paginated messages that can be navigated at once,
+     * when exceeded the least recently used paginated message stops responding to reactions
+     *
+     * @param maxActivePaginators the maximum amount of navigable paginated messages
+     */
+    public void setMaxActivePaginators(int maxActivePaginators) {
+        this.maxActivePaginators = maxActivePaginators;
+    }
+
+    /**
+     * Sets the amount of messages that can have reaction triggers at once,
+     * when exceeded the triggers of the least recently used message are removed
+     *
+     * @param maxReactionTriggerMessages the maximum amount of messages with reaction triggers
+     */
+    public void setMaxReactionTriggerMessages(int maxReactionTriggerMessages) {
+        this.maxReactionTriggerMessages = maxReactionTriggerMessages;
+    }
+
     /**
      * Get the {@link EventPreprocessor} for this JDACommands instance.
      *
@@ -198,7 +543,43 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
     }
 
     /**
-     * Removes the command listener from the ShardManager or JDA instance.
+     * Gets the {@link LocaleProvider} for this JDACommands instance.
+     *
+     * @return the LocaleProvider for this JDACommands instance.
+     */
+    public LocaleProvider getLocaleProvider() {
+        return localeProvider;
+    }
+
+    /**
+     * Sets the {@link LocaleProvider} for this JDACommands instance.
+     *
+     * @param localeProvider the new LocaleProvider for this JDACommands instance.
+     */
+    public void setLocaleProvider(LocaleProvider localeProvider) {
+        this.localeProvider = localeProvider;
+    }
+
+    /**
+     * Gets the {@link ResponseSink} all outgoing actions go through.
+     *
+     * @return the ResponseSink for this JDACommands instance.
+     */
+    public ResponseSink getResponseSink() {
+        return responseSink;
+    }
+
+    /**
+     * Sets the {@link ResponseSink} all outgoing actions go through.
+     *
+     * @param responseSink the new ResponseSink for this JDACommands instance.
+     */
+    public void setResponseSink(ResponseSink responseSink) {
+        this.responseSink = responseSink;
+    }
+
+    /**
+     * Removes the command listener from the ShardManager or JDA instance & shuts down the {@link CommandGovernor}, if set.
      */
     @SuppressWarnings("WeakerAccess")
     public void shutdown() {
@@ -207,6 +588,9 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
 
         if (jda != null)
             jda.removeEventListener(commandListener);
+
+        if (commandGovernor != null)
+            commandGovernor.shutdown();
     }
 
     /**
@@ -220,6 +604,7 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
      */
     @Override
     public void preprocessEvent(GenericMessageEvent event, Message message, User author, Member member, boolean edited) {
+        CommandTrace trace = startTrace(CommandSource.MESSAGE);
         String content = message.getContentRaw();
 
         Guild guild;
@@ -236,32 +621,33 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
         boolean mentionPrefix = content.contains(" ") && content.startsWith(mention) && allowMentionAsPrefix;
         if (!content.startsWith(prefix) && !mentionPrefix)
             return;
+        markTrace(trace, null, TraceStage.PREFIX_RESOLVED);
 
-        List<String> arguments = new ArrayList<>(content.contains(" ")
-                ? Arrays.asList(content.split(" ")) : Collections.singletonList(content));
-        if (mentionPrefix)
-            arguments.remove(0); // remove mention
-
-        String cmd = mentionPrefix ? arguments.get(0) : Pattern.compile(prefix, Pattern.LITERAL)
-                .matcher(arguments.get(0)).replaceFirst("");
-        arguments.remove(0); // remove command
+        int commandStart = mentionPrefix ? content.indexOf(' ') + 1 : 0; // skip mention
+        int commandEnd = content.indexOf(' ', commandStart);
+        if (commandEnd == -1)
+            commandEnd = content.length();
 
-        List<Command> commands = new ArrayList<>();
-        for (CommandCategory commandCategory : commandCategories)
-            commands.addAll(commandCategory.getCommands());
+        String cmd = content.substring(commandStart, commandEnd);
+        if (!mentionPrefix && cmd.startsWith(prefix))
+            cmd = cmd.substring(prefix.length());
 
-        Command command = commands.stream()
-                .filter(c -> c.getAliases().stream().anyMatch(format -> format.contains(" ")
-                        ? format.split(" ")[0].equalsIgnoreCase(cmd)
-                        : format.equalsIgnoreCase(cmd)))
-                .findAny().orElse(null);
+        Command command = getCommand(cmd);
         if (command == null)
             return;
+        markTrace(trace, command, TraceStage.COMMAND_RESOLVED);
 
-        CommandEvent commandEvent = new CommandEvent(event, message, author,
-                member, edited, this, arguments, prefix);
+        boolean recycle = recycleEvents && commandIndex.hasProperty(command, CommandProperty.SYNCHRONOUS);
+        CommandEvent commandEvent = recycle
+                ? CommandEvent.obtain(event, message, author, edited, this, prefix)
+                : new CommandEvent(event, message, author, member, edited, this, new ArgumentList(), prefix);
+        ((ArgumentList) commandEvent.getArguments()).tokenize(content, commandEnd + 1);
+        commandEvent.setCommandId(getCommandId(command));
+        commandEvent.setTrace(trace);
 
         commandPreprocessor.preprocessCommand(commandEvent, command);
+        if (recycle)
+            commandEvent.recycle();
     }
 
     /**
@@ -272,30 +658,155 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
      */
     @Override
     public void preprocessCommand(CommandEvent event, Command command) {
-        List<CommandProperty> properties = command.getProperties();
-        if (properties.contains(CommandProperty.GUILD_ONLY) && event.getGuild() == null)
-            return;
-        if (properties.contains(CommandProperty.BOT_OWNER_ONLY) && !event.getAuthor().getId().equals(botOwnerId))
+        if (!isCommandVisible(command, event)) {
+            finishTrace(event);
             return;
+        }
 
+        List<Permission> botRequiredPermissions = command.getBotRequiredPermissions();
         List<Permission> missingPermissions = new ArrayList<>();
-        for (Permission permission : command.getBotRequiredPermissions()) {
-            if (!event.getGuild().getSelfMember().hasPermission(event.getTextChannel(), permission))
-                missingPermissions.add(permission);
+        if (!botRequiredPermissions.isEmpty() && event.isFromType(ChannelType.TEXT)) {
+            TextChannel textChannel = event.getTextChannel();
+            if (textChannel == null) {
+                // no longer cached, nothing could be sent to it
+                finishTrace(event);
+                return;
+            }
+
+            Member selfMember = textChannel.getGuild().getSelfMember();
+            for (Permission permission : botRequiredPermissions) {
+                if (!selfMember.hasPermission(textChannel, permission))
+                    missingPermissions.add(permission);
+            }
         }
 
         if (!missingPermissions.isEmpty()) {
             resultProcessor.processMissingPermission(missingPermissions, event);
+            finishTrace(event);
+            return;
+        }
+        markTrace(event.getTrace(), null, TraceStage.PERMISSIONS_CHECKED);
+
+        CompletableFuture<Boolean> coordination = acquireCoordination(event, command);
+        if (coordination.isDone()) {
+            executeIfAcquired(event, command, coordination);
+            return;
+        }
+
+        event.retain();
+        coordination.whenComplete((acquired, throwable) -> {
+            try {
+                executeIfAcquired(event, command, coordination);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        });
+    }
+
+    private void executeIfAcquired(CommandEvent event, Command command, CompletableFuture<Boolean> coordination) {
+        if (!isAcquired(coordination)) {
+            finishTrace(event);
+            return;
+        }
+
+        markTrace(event.getTrace(), null, TraceStage.COORDINATED);
+
+        CommandGovernor commandGovernor = this.commandGovernor;
+        if (commandGovernor == null) {
+            executeCommand(event, command);
             return;
         }
 
+        // executed on the governor's executors, rejected right away or once dequeued
+        event.retain();
+        commandGovernor.submit(command.getCostClass(), event.getGuildIdLong(), () -> executeCommand(event, command),
+                () -> {
+                    resultProcessor.processResult(new CommandResult.Template("command.busy", Emoji.HOURGLASS), event);
+                    finishTrace(event);
+                });
+    }
+
+    private boolean isAcquired(CompletableFuture<Boolean> coordination) {
         try {
-            resultProcessor.processResult(command.execute(event), event);
+            return coordination.join();
+        } catch (CompletionException | CancellationException exception) {
+            // coordination is best-effort, don't drop commands because the backend is unavailable
+            exception.printStackTrace();
+            return true;
+        }
+    }
+
+    private CompletableFuture<Boolean> acquireCoordination(CommandEvent event, Command command) {
+        CompletableFuture<Boolean> deduplication = deduplicationWindowMillis > 0L
+                && event.getSource() == CommandSource.MESSAGE && !event.isEdited()
+                ? coordinationBackend.tryAcquire(CoordinationBackend.DEDUPLICATION_KEY_PREFIX
+                        + event.getMessageIdLong(), deduplicationWindowMillis)
+                : CompletableFuture.completedFuture(true);
+
+        long cooldownMillis = command.getCooldownMillis();
+        String commandId = getCommandId(command);
+        if (cooldownMillis <= 0L || commandId == null)
+            return deduplication;
+
+        // sequential, a duplicate must not take the cooldown from the process running the command
+        return deduplication.thenCompose(acquired -> {
+            if (!acquired)
+                return CompletableFuture.completedFuture(false);
+
+            return coordinationBackend.tryAcquire(CoordinationBackend.COOLDOWN_KEY_PREFIX + commandId + ":" + event.getAuthorIdLong(),
+                    cooldownMillis).thenApply(cooldownAcquired -> {
+                if (!cooldownAcquired)
+                    resultProcessor.processResult(new CommandResult.Template("command.cooldown", Emoji.HOURGLASS), event);
+                return cooldownAcquired;
+            });
+        });
+    }
+
+    private void executeCommand(CommandEvent event, Command command) {
+        try {
+            CommandResult commandResult = command.execute(event);
+            markTrace(event.getTrace(), null, TraceStage.EXECUTED);
+
+            resultProcessor.processResult(commandResult, event);
+            markTrace(event.getTrace(), null, TraceStage.RESULT_PROCESSED);
         } catch (PermissionException exception) {
             resultProcessor.processMissingPermission(Collections.singletonList(exception.getPermission()), event);
+        } finally {
+            finishTrace(event);
         }
     }
 
+    @Nullable
+    private CommandTrace startTrace(CommandSource source) {
+        double traceSampleRate = this.traceSampleRate;
+        if (traceSampleRate <= 0D || traceListeners.isEmpty()
+                || (traceSampleRate < 1D && ThreadLocalRandom.current().nextDouble() >= traceSampleRate))
+            return null;
+
+        CommandTrace trace = new CommandTrace(source);
+        trace.mark(TraceStage.RECEIVED);
+        return trace;
+    }
+
+    private void markTrace(@Nullable CommandTrace trace, @Nullable Command command, TraceStage stage) {
+        if (trace == null)
+            return;
+
+        trace.mark(stage);
+        if (command != null)
+            trace.setCommandId(getCommandId(command));
+    }
+
+    private void finishTrace(CommandEvent event) {
+        CommandTrace trace = event.getTrace();
+        if (trace == null)
+            return;
+
+        event.setTrace(null);
+        for (TraceListener traceListener : traceListeners)
+            traceListener.onTrace(trace);
+    }
+
     // ResultProcessor
     @Override
     public void processResult(CommandResult commandResult, CommandEvent event) {
@@ -303,11 +814,23 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
             CommandResult.Error error = (CommandResult.Error) commandResult;
 
             error.getException().printStackTrace();
-            sendMessageSafely(event, Emoji.X + " An error occurred while processing the command.");
+            sendMessageSafely(event, event.getMessageBundle().render("command.error", Emoji.X));
         } else if (commandResult instanceof CommandResult.Message) {
             CommandResult.Message message = (CommandResult.Message) commandResult;
 
-            sendMessageSafely(event, message.getMessage());
+            sendLongMessageSafely(event, message.getMessage());
+        } else if (commandResult instanceof CommandResult.Template) {
+            CommandResult.Template template = (CommandResult.Template) commandResult;
+
+            sendLongMessageSafely(event, event.getMessageBundle().render(template.getKey(), template.getArguments()));
+        } else if (commandResult instanceof CommandResult.Embed) {
+            sendEmbedSafely(event, ((CommandResult.Embed) commandResult).getEmbed());
+        } else if (commandResult instanceof CommandResult.Streamed) {
+            CommandResult.Streamed streamed = (CommandResult.Streamed) commandResult;
+
+            sendMessagesSafely(event, new MessageChunker(streamed.getChunks()));
+        } else if (commandResult instanceof CommandResult.Paginated) {
+            sendPaginatedSafely(event, (CommandResult.Paginated) commandResult);
         } else if (commandResult instanceof CommandResult.Generic) {
             //noinspection SwitchStatementWithTooFewBranches
             switch ((CommandResult.Generic) commandResult) {
@@ -320,30 +843,49 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
 
     @Override
     public void processMissingPermission(List<Permission> missingPermissions, CommandEvent event) {
-        sendMessageSafely(event, Emoji.X + " Missing permission" + (missingPermissions.size() == 1 ? "" : "s")
-                + ", " + "`" + missingPermissions.stream()
-                .map(Permission::getName).collect(Collectors.joining(", ")) + "`");
+        sendMessageSafely(event, event.getMessageBundle().render(missingPermissions.size() == 1
+                ? "permission.missing" : "permission.missing.plural", Emoji.X, joinPermissions(missingPermissions)));
+    }
+
+    private static String joinPermissions(List<Permission> permissions) {
+        StringJoiner stringJoiner = new StringJoiner(", ");
+        for (Permission permission : permissions)
+            stringJoiner.add(permission.getName());
+        return stringJoiner.toString();
     }
 
     public void handleSuccessCheckMark(CommandEvent event) {
-        if (event.getChannel() instanceof TextChannel) {
-            Member selfMember = event.getGuild().getSelfMember();
+        if (event.getSource() == CommandSource.INTERACTION) {
+            sendMessageSafely(event, Emoji.WHITE_CHECK_MARK);
+            return;
+        }
+
+        MessageChannel messageChannel = event.getChannel();
+        if (messageChannel == null)
+            return;
+
+        if (messageChannel instanceof TextChannel) {
+            TextChannel textChannel = (TextChannel) messageChannel;
+            Member selfMember = textChannel.getGuild().getSelfMember();
 
-            if (hasPermission(event.getTextChannel(), selfMember, Permission.MESSAGE_HISTORY, Permission.MESSAGE_ADD_REACTION))
-                event.getMessage().addReaction(Emoji.WHITE_CHECK_MARK).queue();
+            if (hasPermission(textChannel, selfMember, Permission.MESSAGE_HISTORY, Permission.MESSAGE_ADD_REACTION))
+                responseSink.addReaction(event.getCommandId(), textChannel, event.getMessageIdLong(), Emoji.WHITE_CHECK_MARK);
             else if (hasPermission(event, selfMember, Permission.MESSAGE_READ, Permission.MESSAGE_WRITE))
-                event.getChannel().sendMessage(Emoji.WHITE_CHECK_MARK).queue();
+                responseSink.sendMessage(event.getCommandId(), textChannel, Emoji.WHITE_CHECK_MARK, null);
 
             return;
         }
 
-        event.getMessage().addReaction(Emoji.WHITE_CHECK_MARK).queue();
+        responseSink.addReaction(event.getCommandId(), messageChannel, event.getMessageIdLong(), Emoji.WHITE_CHECK_MARK);
     }
 
     public void sendMessageSafely(CommandEvent event, String message) {
         MessageChannel messageChannel = event.getChannel();
+        if (messageChannel == null)
+            return;
+
         if (!(messageChannel instanceof TextChannel)) {
-            messageChannel.sendMessage(message).queue();
+            responseSink.sendMessage(event.getCommandId(), messageChannel, message, null);
             return;
         }
 
@@ -351,11 +893,123 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
         Member selfMember = textChannel.getGuild().getSelfMember();
 
         if (hasPermission(event, selfMember, Permission.MESSAGE_READ, Permission.MESSAGE_WRITE))
-            textChannel.sendMessage(message).queue();
+            responseSink.sendMessage(event.getCommandId(), textChannel, message, null);
+    }
+
+    private void sendLongMessageSafely(CommandEvent event, String message) {
+        if (message.length() > MessageChunker.MESSAGE_LIMIT)
+            sendMessagesSafely(event, new MessageChunker(Collections.singleton(message).iterator()));
+        else
+            sendMessageSafely(event, message);
+    }
+
+    public void sendEmbedSafely(CommandEvent event, MessageEmbed embed) {
+        MessageChannel messageChannel = event.getChannel();
+        if (messageChannel == null)
+            return;
+
+        if (!(messageChannel instanceof TextChannel)) {
+            responseSink.sendEmbed(event.getCommandId(), messageChannel, embed);
+            return;
+        }
+
+        TextChannel textChannel = (TextChannel) messageChannel;
+        Member selfMember = textChannel.getGuild().getSelfMember();
+
+        if (hasPermission(event, selfMember, Permission.MESSAGE_READ, Permission.MESSAGE_WRITE, Permission.MESSAGE_EMBED_LINKS))
+            responseSink.sendEmbed(event.getCommandId(), textChannel, embed);
+    }
+
+    /**
+     * Sends messages one after another, the next message is only requested from the iterator once the previous
+     * message has been sent. If a message can't be sent the remaining messages are skipped,
+     * the iterator is closed once done if it is {@link AutoCloseable}.
+     *
+     * @param event    the event to respond to
+     * @param messages the messages, each must fit within the message length limit
+     */
+    public void sendMessagesSafely(CommandEvent event, Iterator<String> messages) {
+        MessageChannel messageChannel = event.getChannel();
+        if (messageChannel == null || (messageChannel instanceof TextChannel && !hasPermission(event,
+                ((TextChannel) messageChannel).getGuild().getSelfMember(), Permission.MESSAGE_READ, Permission.MESSAGE_WRITE))) {
+            closeMessages(messages);
+            return;
+        }
+
+        sendSequentially(event.getCommandId(), messageChannel, messages);
+    }
+
+    private void sendSequentially(String commandId, MessageChannel messageChannel, Iterator<String> messages) {
+        try {
+            if (!messages.hasNext()) {
+                closeMessages(messages);
+                return;
+            }
+
+            responseSink.sendMessage(commandId, messageChannel, messages.next(),
+                    messageId -> sendSequentially(commandId, messageChannel, messages),
+                    throwable -> {
+                        throwable.printStackTrace();
+                        closeMessages(messages);
+                    });
+        } catch (RuntimeException e) {
+            // runs on JDA's callback thread after the first message, nothing would report it
+            e.printStackTrace();
+            closeMessages(messages);
+        }
+    }
+
+    private static void closeMessages(Iterator<String> messages) {
+        if (!(messages instanceof AutoCloseable))
+            return;
+
+        try {
+            ((AutoCloseable) messages).close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void sendPaginatedSafely(CommandEvent event, CommandResult.Paginated paginated) {
+        MessageChannel messageChannel = event.getChannel();
+        if (messageChannel == null)
+            return;
+
+        boolean canReact = true;
+        if (messageChannel instanceof TextChannel) {
+            TextChannel textChannel = (TextChannel) messageChannel;
+            Member selfMember = textChannel.getGuild().getSelfMember();
+            if (!hasPermission(event, selfMember, Permission.MESSAGE_READ, Permission.MESSAGE_WRITE))
+                return;
+
+            canReact = hasPermission(textChannel, selfMember, Permission.MESSAGE_HISTORY, Permission.MESSAGE_ADD_REACTION);
+        }
+
+        String firstPage = fitMessage(paginated.getPageRenderer().apply(0));
+        String commandId = event.getCommandId();
+        if (paginated.getPageCount() == 1 || !canReact) {
+            responseSink.sendMessage(commandId, messageChannel, firstPage, null);
+            return;
+        }
+
+        long userId = event.getAuthorIdLong();
+        responseSink.sendMessage(commandId, messageChannel, firstPage, messageId -> {
+            paginators.put(messageId, new Paginator(commandId, messageId, userId,
+                    paginated.getPageCount(), page -> fitMessage(paginated.getPageRenderer().apply(page))));
+            responseSink.addReaction(commandId, messageChannel, messageId, Emoji.ARROW_LEFT);
+            responseSink.addReaction(commandId, messageChannel, messageId, Emoji.ARROW_RIGHT);
+        });
+    }
+
+    private static String fitMessage(String message) {
+        return message.length() > MessageChunker.MESSAGE_LIMIT
+                ? message.substring(0, MessageChunker.cutIndex(message, MessageChunker.MESSAGE_LIMIT)) : message;
     }
 
     public boolean hasPermission(CommandEvent event, Member member, Permission... permissions) {
         TextChannel textChannel = event.getTextChannel();
+        if (textChannel == null)
+            return false;
 
         List<Permission> missingPermissions = new ArrayList<>();
         for (Permission permission : permissions) {
@@ -366,24 +1020,31 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
         if (missingPermissions.isEmpty())
             return true;
 
-        String missingPermissionsMessage = Emoji.WARNING + " Missing permission" + (missingPermissions.size() == 1
-                ? "" : "s") + ", `" + missingPermissions.stream().map(Permission::getName)
-                .collect(Collectors.joining(", ")) + "`";
+        MessageBundle messageBundle = event.getMessageBundle();
+        boolean plural = missingPermissions.size() != 1;
+        String permissionNames = joinPermissions(missingPermissions);
 
         Member selfMember = textChannel.getGuild().getSelfMember();
         if (selfMember.hasPermission(textChannel, Permission.MESSAGE_READ, Permission.MESSAGE_WRITE)) {
-            textChannel.sendMessage(missingPermissionsMessage).queue();
+            responseSink.sendMessage(event.getCommandId(), textChannel, messageBundle.render(plural
+                    ? "permission.missing.plural" : "permission.missing", Emoji.WARNING, permissionNames), null);
             return false;
         }
 
         if (selfMember.hasPermission(textChannel, Permission.MESSAGE_ADD_REACTION, Permission.MESSAGE_ADD_REACTION)
-                && !event.getMessage().getContentRaw().contains("--error")) {
-            event.getMessage().addReaction(Emoji.WARNING).queue();
+                && event.getSource() != CommandSource.INTERACTION
+                && (event.getContentRaw() == null || !event.getContentRaw().contains("--error"))) {
+            responseSink.addReaction(event.getCommandId(), textChannel, event.getMessageIdLong(), Emoji.WARNING);
             return false;
         }
 
-        event.getAuthor().openPrivateChannel().queue(privateChannel -> privateChannel.sendMessage(
-                missingPermissionsMessage + " in " + textChannel.getAsMention()).queue());
+        User author = event.getAuthor();
+        if (author == null)
+            return false;
+
+        responseSink.sendPrivateMessage(event.getCommandId(), author, messageBundle.render(plural
+                ? "permission.missing.channel.plural" : "permission.missing.channel",
+                Emoji.WARNING, permissionNames, textChannel.getAsMention()));
         return false;
     }
 
@@ -402,6 +1063,67 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
         return defaultPrefix;
     }
 
+    // reactions are toggled by both adding & removing them, so that navigating doesn't need MESSAGE_MANAGE
+    private boolean handlePaginatorReaction(GenericMessageReactionEvent event) {
+        Paginator paginator = paginators.get(event.getMessageIdLong());
+        if (paginator == null)
+            return false;
+
+        User user = event.getUser();
+        MessageReaction.ReactionEmote reactionEmote = event.getReactionEmote();
+        if (user == null || user.getIdLong() != paginator.getUserId() || !reactionEmote.isEmoji())
+            return true;
+
+        int offset;
+        if (reactionEmote.getEmoji().equals(Emoji.ARROW_LEFT))
+            offset = -1;
+        else if (reactionEmote.getEmoji().equals(Emoji.ARROW_RIGHT))
+            offset = 1;
+        else
+            return true;
+
+        String page = paginator.move(offset);
+        if (page != null)
+            responseSink.editMessage(paginator.getCommandId(), event.getChannel(), paginator.getMessageId(), page);
+        return true;
+    }
+
+    private void handleReactionAdd(MessageReactionAddEvent event) {
+        if (handlePaginatorReaction(event))
+            return;
+
+        Map<String, ReactionTrigger> triggers = reactionTriggers.get(event.getMessageIdLong());
+        if (triggers == null)
+            return;
+
+        User user = event.getUser();
+        if (user == null || user.isBot())
+            return;
+
+        MessageReaction.ReactionEmote reactionEmote = event.getReactionEmote();
+        ReactionTrigger reactionTrigger = triggers.get(reactionEmote.isEmoji()
+                ? reactionEmote.getEmoji() : reactionEmote.getId());
+        if (reactionTrigger == null)
+            return;
+
+        Guild guild = event.getChannel() instanceof TextChannel ? event.getGuild() : null;
+        String prefix = prefixProvider.providePrefix(guild, defaultPrefix);
+
+        dispatch(reactionTrigger.getCommandId(), new CommandEvent(event, this,
+                new ArrayList<>(reactionTrigger.getArguments()), prefix));
+    }
+
+    /**
+     * Default {@link LocaleProvider}
+     *
+     * @param guild Guild context
+     * @return The locale for the guild, otherwise the defaultLocale
+     */
+    @Override
+    public Locale provideLocale(Guild guild, Locale defaultLocale) {
+        return defaultLocale;
+    }
+
     // shutdown on finalize
     @SuppressWarnings("deprecation") // Newer Java versions
     @Override
@@ -422,5 +1144,30 @@ public class JDACommands implements EventPreprocessor, CommandPreprocessor, Resu
             eventPreprocessor.preprocessEvent(event, event.getMessage(),
                     event.getAuthor(), event.getMember(), true);
         }
+
+        @Override
+        public void onMessageReactionAdd(@NotNull MessageReactionAddEvent event) {
+            handleReactionAdd(event);
+        }
+
+        @Override
+        public void onMessageReactionRemove(@NotNull MessageReactionRemoveEvent event) {
+            handlePaginatorReaction(event);
+        }
+
+        @Override
+        public void onMessageDelete(@NotNull MessageDeleteEvent event) {
+            removeReactionTriggers(event.getMessageIdLong());
+            paginators.remove(event.getMessageIdLong());
+        }
+
+        @Override
+        public void onMessageBulkDelete(@NotNull MessageBulkDeleteEvent event) {
+            for (String messageId : event.getMessageIds()) {
+                long id = Long.parseUnsignedLong(messageId);
+                removeReactionTriggers(id);
+                paginators.remove(id);
+            }
+        }
     }
 }
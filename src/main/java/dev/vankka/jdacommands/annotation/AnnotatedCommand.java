@@ -0,0 +1,240 @@
+package dev.vankka.jdacommands.annotation;
+
+import dev.vankka.jdacommands.model.command.CommandEvent;
+import dev.vankka.jdacommands.model.command.CommandProperty;
+import dev.vankka.jdacommands.model.command.CommandResult;
+import dev.vankka.jdacommands.model.command.CostClass;
+import dev.vankka.jdacommands.object.Emoji;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.exceptions.PermissionException;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A {@link dev.vankka.jdacommands.model.command.Command} created from a {@link Command} annotated method.
+ * All metadata is computed once when created & the method is invoked without reflection.
+ */
+public final class AnnotatedCommand implements dev.vankka.jdacommands.model.command.Command {
+
+    private static final Map<Class<?>, Function<String, Object>> PARSERS = new HashMap<>();
+
+    static {
+        Function<String, Object> integerParser = Integer::parseInt;
+        Function<String, Object> longParser = Long::parseLong;
+        Function<String, Object> doubleParser = Double::parseDouble;
+        Function<String, Object> booleanParser = value -> {
+            if (value.equalsIgnoreCase("true"))
+                return true;
+            if (value.equalsIgnoreCase("false"))
+                return false;
+            throw new IllegalArgumentException("Not a boolean: " + value);
+        };
+
+        PARSERS.put(String.class, value -> value);
+        PARSERS.put(int.class, integerParser);
+        PARSERS.put(Integer.class, integerParser);
+        PARSERS.put(long.class, longParser);
+        PARSERS.put(Long.class, longParser);
+        PARSERS.put(double.class, doubleParser);
+        PARSERS.put(Double.class, doubleParser);
+        PARSERS.put(boolean.class, booleanParser);
+        PARSERS.put(Boolean.class, booleanParser);
+    }
+
+    private final String description;
+    private final List<String> aliases;
+    private final List<CommandProperty> properties;
+    private final List<Permission> botRequiredPermissions;
+    private final long cooldownMillis;
+    private final CostClass costClass;
+    private final Invoker invoker;
+
+    AnnotatedCommand(Object instance, Method method, Command command) {
+        if (!CommandResult.class.isAssignableFrom(method.getReturnType()))
+            throw new IllegalArgumentException(method + " must return a CommandResult");
+
+        Parameter[] parameters = method.getParameters();
+        Argument[] arguments = new Argument[parameters.length];
+        StringBuilder usage = new StringBuilder();
+        boolean optional = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            if (parameter.getType() == CommandEvent.class)
+                continue;
+
+            Arg arg = parameter.getAnnotation(Arg.class);
+            Function<String, Object> parser = PARSERS.get(parameter.getType());
+            if (arg == null || parser == null)
+                throw new IllegalArgumentException("Parameter " + parameter + " of " + method
+                        + " must be a CommandEvent or a supported @Arg type");
+            if (arg.optional() && parameter.getType().isPrimitive())
+                throw new IllegalArgumentException("Optional parameter " + parameter + " of " + method
+                        + " can't be a primitive");
+            if (optional && !arg.optional())
+                throw new IllegalArgumentException("Required parameter " + parameter + " of " + method
+                        + " can't come after an optional parameter");
+
+            optional = arg.optional();
+            arguments[i] = new Argument(parser, optional);
+            usage.append(optional ? " [" : " <").append(arg.value()).append(optional ? ']' : '>');
+        }
+
+        List<String> aliases = new ArrayList<>(command.aliases().length + 1);
+        aliases.add(command.name() + usage);
+        for (String alias : command.aliases())
+            aliases.add(alias + usage);
+
+        this.description = command.description();
+        this.aliases = Collections.unmodifiableList(aliases);
+        this.properties = Collections.unmodifiableList(Arrays.asList(command.properties()));
+        this.botRequiredPermissions = Collections.unmodifiableList(Arrays.asList(command.botRequiredPermissions()));
+        this.cooldownMillis = command.cooldownMillis();
+        this.costClass = command.costClass();
+        this.invoker = createInvoker(instance, method, arguments);
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    @Override
+    public List<CommandProperty> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public List<Permission> getBotRequiredPermissions() {
+        return botRequiredPermissions;
+    }
+
+    @Override
+    public long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return costClass;
+    }
+
+    @Override
+    public CommandResult execute(CommandEvent event) throws PermissionException {
+        try {
+            return invoker.invoke(event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            return new CommandResult.Error(e);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private Invoker createInvoker(Object instance, Method method, Argument[] arguments) {
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (arguments.length == 1 && arguments[0] == null) {
+            Function<CommandEvent, CommandResult> function = createLambda(isStatic ? null : instance, method);
+            if (function != null)
+                return function::apply;
+        }
+
+        MethodHandle methodHandle;
+        try {
+            method.setAccessible(true);
+            methodHandle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access " + method, e);
+        }
+        if (!isStatic)
+            methodHandle = methodHandle.bindTo(instance);
+
+        MethodHandle handle = methodHandle.asSpreader(Object[].class, arguments.length)
+                .asType(MethodType.methodType(CommandResult.class, Object[].class));
+        return event -> {
+            Object[] values = parseArguments(event, arguments);
+            if (values == null)
+                return new CommandResult.Template("command.usage", Emoji.X, event.getPrefix() + aliases.get(0));
+
+            return (CommandResult) handle.invokeExact(values);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<CommandEvent, CommandResult> createLambda(Object instance, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            // the generated class can only link against classes visible from this library's class loader
+            if (Class.forName(declaringClass.getName(), false, AnnotatedCommand.class.getClassLoader()) != declaringClass)
+                return null;
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType factoryType = instance != null
+                    ? MethodType.methodType(Function.class, declaringClass)
+                    : MethodType.methodType(Function.class);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", factoryType,
+                    MethodType.methodType(Object.class, Object.class), lookup.unreflect(method),
+                    MethodType.methodType(method.getReturnType(), CommandEvent.class));
+
+            return (Function<CommandEvent, CommandResult>) (instance != null
+                    ? callSite.getTarget().invoke(instance)
+                    : callSite.getTarget().invoke());
+        } catch (Throwable ignored) {
+            // not accessible (non-public class, other class loader), use a method handle instead
+            return null;
+        }
+    }
+
+    private static Object[] parseArguments(CommandEvent event, Argument[] arguments) {
+        List<String> input = event.getArguments();
+        Object[] values = new Object[arguments.length];
+
+        int inputIndex = 0;
+        for (int i = 0; i < arguments.length; i++) {
+            Argument argument = arguments[i];
+            if (argument == null) {
+                values[i] = event;
+                continue;
+            }
+
+            if (inputIndex >= input.size()) {
+                if (!argument.optional)
+                    return null;
+                continue;
+            }
+
+            try {
+                values[i] = argument.parser.apply(input.get(inputIndex++));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface Invoker {
+        CommandResult invoke(CommandEvent event) throws Throwable;
+    }
+
+    private static class Argument {
+
+        private final Function<String, Object> parser;
+        private final boolean optional;
+
+        private Argument(Function<String, Object> parser, boolean optional) {
+            this.parser = parser;
+            this.optional = optional;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dev.vankka.jdacommands.annotation;
+
+import dev.vankka.jdacommands.model.command.CommandCategory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Creates {@link CommandCategory CommandCategories} from objects with {@link Command} annotated public methods.
+ * <pre>
+ * &#64;Category(name = "Fun", description = "Fun commands")
+ * public class FunCommands {
+ *     &#64;Command(name = "roll", description = "Rolls a die")
+ *     public CommandResult roll(CommandEvent event, &#64;Arg("sides") int sides) {
+ *         ...
+ *     }
+ * }
+ *
+ * jdaCommands.addCommandCategories(AnnotatedCommands.createCategory(new FunCommands()));
+ * </pre>
+ */
+public final class AnnotatedCommands {
+
+    private AnnotatedCommands() {}
+
+    /**
+     * Creates a command category from the {@link Command} annotated public methods of the given object.
+     *
+     * @param instance the object the commands are invoked on
+     * @return the command category
+     * @throws IllegalArgumentException if the object has no valid commands
+     */
+    public static CommandCategory createCategory(Object instance) {
+        Class<?> type = instance.getClass();
+
+        List<dev.vankka.jdacommands.model.command.Command> commands = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            Command command = method.getAnnotation(Command.class);
+            if (command != null)
+                commands.add(new AnnotatedCommand(instance, method, command));
+        }
+        if (commands.isEmpty())
+            throw new IllegalArgumentException(type.getName() + " doesn't have any @Command methods");
+        commands.sort(Comparator.comparing(command -> command.getAliases().get(0)));
+
+        Category category = type.getAnnotation(Category.class);
+        return new AnnotatedCategory(category != null ? category.name() : type.getSimpleName(),
+                category != null ? category.description() : "", Collections.unmodifiableList(commands));
+    }
+
+    private static class AnnotatedCategory implements CommandCategory {
+
+        private final String name;
+        private final String description;
+        private final List<dev.vankka.jdacommands.model.command.Command> commands;
+
+        private AnnotatedCategory(String name, String description,
+                                  List<dev.vankka.jdacommands.model.command.Command> commands) {
+            this.name = name;
+            this.description = description;
+            this.commands = commands;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public List<dev.vankka.jdacommands.model.command.Command> getCommands() {
+            return commands;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.vankka.jdacommands.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares a {@link Command} method parameter as a command argument, parsed from the command's arguments in order.
+ * Supported types are String, int, long, double, boolean & their boxed types.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Arg {
+
+    /**
+     * The name of the argument displayed on the help command.
+     *
+     * @return the name
+     */
+    String value();
+
+    /**
+     * Optional arguments are null if they aren't provided and must come after required arguments.
+     * Optional arguments can't be primitives.
+     *
+     * @return true if this argument is optional
+     */
+    boolean optional() default false;
+}
@@ -0,0 +1,22 @@
+package dev.vankka.jdacommands.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the command category for a class containing {@link Command} methods.
+ * Without this annotation the class's simple name is used as the category name.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Category {
+
+    String name();
+
+    /**
+     * Description to be displayed on the help command.
+     *
+     * @return the description
+     */
+    String description() default "";
+}
@@ -0,0 +1,63 @@
+package dev.vankka.jdacommands.annotation;
+
+import dev.vankka.jdacommands.model.command.CommandProperty;
+import dev.vankka.jdacommands.model.command.CommandResult;
+import dev.vankka.jdacommands.model.command.CostClass;
+import net.dv8tion.jda.api.Permission;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares a method as a command, see {@link AnnotatedCommands}.
+ * The method must return a {@link CommandResult}, its parameters may be the
+ * {@link dev.vankka.jdacommands.model.command.CommandEvent} and {@link Arg} annotated arguments.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Command {
+
+    /**
+     * The name of the command, the id the command is dispatched with.
+     *
+     * @return the name
+     */
+    String name();
+
+    /**
+     * Additional names for the command.
+     *
+     * @return the aliases
+     */
+    String[] aliases() default {};
+
+    /**
+     * Description to be displayed on the help command.
+     *
+     * @return the description
+     */
+    String description() default "";
+
+    CommandProperty[] properties() default {};
+
+    /**
+     * The permissions the bot requires to execute the command.
+     *
+     * @return the required permissions
+     */
+    Permission[] botRequiredPermissions() default {};
+
+    /**
+     * How long a user has to wait between executions of this command.
+     *
+     * @return the cooldown in milliseconds
+     */
+    long cooldownMillis() default 0L;
+
+    /**
+     * How expensive the command is to execute.
+     *
+     * @return the cost class
+     */
+    CostClass costClass() default CostClass.STANDARD;
+}
@@ -2,6 +2,7 @@ package dev.vankka.jdacommands.commands;
 
 import dev.vankka.jdacommands.model.command.*;
 import dev.vankka.jdacommands.object.Emoji;
+import dev.vankka.jdacommands.object.MessageBundle;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.exceptions.PermissionException;
 
@@ -13,6 +14,7 @@ import java.util.stream.Collectors;
 public class HelpCommand implements CommandCategory, Command {
 
     private final List<Command> commands = Collections.singletonList(this);
+    private final List<String> aliases = Collections.singletonList("help [category]");
 
     @Override
     public String getDescription() {
@@ -31,7 +33,7 @@ public class HelpCommand implements CommandCategory, Command {
 
     @Override
     public List<String> getAliases() {
-        return Collections.singletonList("help [category]");
+        return aliases;
     }
 
     @Override
@@ -44,32 +46,36 @@ public class HelpCommand implements CommandCategory, Command {
         return Collections.emptyList();
     }
 
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
     @Override
     public CommandResult execute(CommandEvent event) throws PermissionException {
         List<CommandCategory> commandCategories = event.getJdaCommands().getCommandCategories();
+        MessageBundle messageBundle = event.getMessageBundle();
 
         if (!event.getArguments().isEmpty()) {
             CommandCategory commandCategory = commandCategories.stream()
                     .filter(category -> category.getName().equalsIgnoreCase(event.getArguments().get(0)))
                     .findFirst().orElse(null);
             if (commandCategory == null)
-                return new CommandResult.Message(Emoji.X + " Category not found");
+                return new CommandResult.Template("help.category.not-found", Emoji.X);
 
-            StringBuilder stringBuilder = new StringBuilder("__**" + commandCategory.getName() + " help**__\n\n");
+            StringBuilder stringBuilder = messageBundle.get("help.category.header")
+                    .appendTo(new StringBuilder(), commandCategory.getName());
             for (Command command : commandCategory.getCommands()) {
-                if (command.getProperties().contains(CommandProperty.GUILD_ONLY) && event.getGuild() == null)
-                    continue;
-                if (command.getProperties().contains(CommandProperty.BOT_OWNER_ONLY)
-                        && !event.getJdaCommands().getBotOwnerId().equals(event.getAuthor().getId()))
+                if (!event.getJdaCommands().isCommandVisible(command, event))
                     continue;
 
-                appendStringBuilder(stringBuilder, command, event.getPrefix());
+                appendStringBuilder(stringBuilder, command, event);
             }
 
-            stringBuilder.append("\n**[] = optional, <> = required**");
+            messageBundle.get("help.footer").appendTo(stringBuilder);
             return new CommandResult.Message(stringBuilder.toString());
         } else {
-            StringBuilder stringBuilder = new StringBuilder("__**Help**__");
+            StringBuilder stringBuilder = messageBundle.get("help.header").appendTo(new StringBuilder());
 
             List<CommandCategory> categories = commandCategories.stream().sorted()
                     .sorted(Comparator.comparingLong(commandCategory -> getCategorySize(commandCategory, event)))
@@ -84,30 +90,26 @@ public class HelpCommand implements CommandCategory, Command {
                 if (category.getCommands().size() > 1)
                     stringBuilder.append(category.getDescription()).append("\n");
                 else
-                    appendStringBuilder(stringBuilder, category.getCommands().get(0), event.getPrefix());
+                    appendStringBuilder(stringBuilder, category.getCommands().get(0), event);
             }
 
-            stringBuilder.append("\n**[] = optional, <> = required**");
+            messageBundle.get("help.footer").appendTo(stringBuilder);
             return new CommandResult.Message(stringBuilder.toString());
         }
     }
 
-    private void appendStringBuilder(StringBuilder stringBuilder, Command command, String prefix) {
+    private void appendStringBuilder(StringBuilder stringBuilder, Command command, CommandEvent event) {
         stringBuilder
-                .append(command.getProperties().contains(CommandProperty.BOT_OWNER_ONLY) ? Emoji.CROWN : Emoji.GEAR)
+                .append(event.getJdaCommands().getCommandIndex().hasProperty(command, CommandProperty.BOT_OWNER_ONLY)
+                        ? Emoji.CROWN : Emoji.GEAR)
                 .append(" `")
-                .append(prefix)
+                .append(event.getPrefix())
                 .append("` ")
                 .append(command.getDescription())
                 .append("\n");
     }
 
     private long getCategorySize(CommandCategory commandCategory, CommandEvent event) {
-        return commandCategory.getCommands().stream().map(Command::getProperties)
-                .filter(commandProperties -> !commandProperties.contains(CommandProperty.GUILD_ONLY)
-                        && event.getGuild() != null)
-                .filter(commandProperties -> !commandProperties.contains(CommandProperty.BOT_OWNER_ONLY)
-                        && !event.getAuthor().getId().equals(event.getJdaCommands().getBotOwnerId()))
-                .count();
+        return event.getJdaCommands().countVisibleCommands(commandCategory, event);
     }
 }
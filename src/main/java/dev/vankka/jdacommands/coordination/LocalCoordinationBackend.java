@@ -0,0 +1,39 @@
+package dev.vankka.jdacommands.coordination;
+
+import dev.vankka.jdacommands.model.coordination.CoordinationBackend;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process {@link CoordinationBackend}, state is only shared within this JVM.
+ */
+public class LocalCoordinationBackend implements CoordinationBackend {
+
+    private static final CompletableFuture<Boolean> ACQUIRED = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> NOT_ACQUIRED = CompletableFuture.completedFuture(false);
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    private final AtomicInteger acquisitions = new AtomicInteger();
+
+    @Override
+    public CompletableFuture<Boolean> tryAcquire(String key, long durationMillis) {
+        long now = System.nanoTime();
+        if (acquisitions.incrementAndGet() % SWEEP_INTERVAL == 0)
+            expiries.values().removeIf(expiry -> expiry - now <= 0);
+
+        boolean[] acquired = new boolean[1];
+        expiries.compute(key, (k, expiry) -> {
+            if (expiry != null && expiry - now > 0)
+                return expiry;
+
+            acquired[0] = true;
+            return now + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        });
+        return acquired[0] ? ACQUIRED : NOT_ACQUIRED;
+    }
+}
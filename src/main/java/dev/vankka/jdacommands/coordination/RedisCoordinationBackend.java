@@ -0,0 +1,431 @@
+package dev.vankka.jdacommands.coordination;
+
+import dev.vankka.jdacommands.model.coordination.CoordinationBackend;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CoordinationBackend} backed by a Redis (or Redis protocol compatible) server, shared between processes.
+ * <p>
+ * Operations are batched & pipelined over a single connection. Keys that are known to be held are kept in a local
+ * near-cache until they expire, so repeated attempts (for example a user spamming a command on cooldown)
+ * are answered without a round trip. Other keys wait for the server, the returned futures complete exceptionally
+ * if the server can't be reached or doesn't reply within the {@link #setOperationTimeoutMillis(long) timeout},
+ * in which case the connection is dropped & opened again for the next operations.
+ * <p>
+ * Keys can be acquired optimistically by prefix with {@link #setOptimisticKeyPrefixes(String...)}: a key that isn't
+ * held in the near-cache is then acquired locally right away & confirmed with the server in the background.
+ * If another process held the key, it is counted as a {@link #getConflictCount() conflict} & the near-cache takes
+ * the server's expiry, but the command has already run: a key may be acquired once per process until it expires.
+ * Deduplication keys are never acquired optimistically.
+ */
+public class RedisCoordinationBackend implements CoordinationBackend, AutoCloseable {
+
+    private static final CompletableFuture<Boolean> ACQUIRED = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> NOT_ACQUIRED = CompletableFuture.completedFuture(false);
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final int NEAR_CACHE_SWEEP_SIZE = 10_000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_OPERATION_TIMEOUT_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private final String keyPrefix;
+    private final Executor callbackExecutor;
+
+    private final BlockingQueue<Operation> pending = new LinkedBlockingQueue<>();
+    private final Map<String, Long> nearCache = new ConcurrentHashMap<>();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final Thread writerThread;
+
+    private volatile boolean closed = false;
+    private volatile int nextSweepSize = NEAR_CACHE_SWEEP_SIZE;
+    private volatile String[] optimisticKeyPrefixes = new String[0];
+    private volatile long operationTimeoutMillis = DEFAULT_OPERATION_TIMEOUT_MILLIS;
+    private Connection connection;
+
+    public RedisCoordinationBackend(String host, int port) {
+        this(host, port, "jdacommands:", ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param host             the server host
+     * @param port             the server port
+     * @param keyPrefix        the prefix for all keys on the server
+     * @param callbackExecutor the executor futures are completed on, commands may run on it
+     */
+    public RedisCoordinationBackend(String host, int port, String keyPrefix, Executor callbackExecutor) {
+        this.host = host;
+        this.port = port;
+        this.keyPrefix = keyPrefix;
+        this.callbackExecutor = callbackExecutor;
+
+        this.writerThread = new Thread(this::writeLoop, "JDACommands Redis Writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryAcquire(String key, long durationMillis) {
+        if (closed) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("This backend has been closed"));
+            return future;
+        }
+
+        long now = System.nanoTime();
+        if (!isOptimistic(key)) {
+            Long expiry = nearCache.get(key);
+            if (expiry != null) {
+                if (expiry - now > 0)
+                    return NOT_ACQUIRED;
+                nearCache.remove(key, expiry);
+            }
+
+            Operation operation = new Operation(key, durationMillis, new CompletableFuture<>());
+            pending.add(operation);
+            return operation.future;
+        }
+
+        boolean[] acquired = new boolean[1];
+        nearCache.compute(key, (k, expiry) -> {
+            if (expiry != null && expiry - now > 0)
+                return expiry;
+
+            acquired[0] = true;
+            return now + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        });
+        if (!acquired[0])
+            return NOT_ACQUIRED;
+
+        sweepNearCache();
+        pending.add(new Operation(key, durationMillis, null));
+        return ACQUIRED;
+    }
+
+    /**
+     * Sets the prefixes of the keys that are acquired locally & confirmed with the server in the background,
+     * for example {@link CoordinationBackend#COOLDOWN_KEY_PREFIX}. None by default.
+     *
+     * @param prefixes the key prefixes
+     * @throws IllegalArgumentException if a prefix could match deduplication keys
+     */
+    public void setOptimisticKeyPrefixes(String... prefixes) {
+        for (String prefix : prefixes) {
+            if (prefix.startsWith(DEDUPLICATION_KEY_PREFIX) || DEDUPLICATION_KEY_PREFIX.startsWith(prefix))
+                throw new IllegalArgumentException("Deduplication keys can't be acquired optimistically: " + prefix);
+        }
+        this.optimisticKeyPrefixes = prefixes.clone();
+    }
+
+    private boolean isOptimistic(String key) {
+        for (String prefix : optimisticKeyPrefixes) {
+            if (key.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets how long a sent operation may wait for its reply, before the connection is considered stalled
+     * & the operations in-flight on it fail. 5 seconds by default.
+     *
+     * @param operationTimeoutMillis the timeout in milliseconds
+     * @throws IllegalArgumentException if the timeout isn't positive
+     */
+    public void setOperationTimeoutMillis(long operationTimeoutMillis) {
+        if (operationTimeoutMillis <= 0)
+            throw new IllegalArgumentException("The operation timeout must be positive");
+        this.operationTimeoutMillis = operationTimeoutMillis;
+    }
+
+    /**
+     * Gets the amount of optimistic acquisitions the server rejected because the key was already held elsewhere.
+     *
+     * @return the amount of conflicts since this backend was created
+     */
+    public long getConflictCount() {
+        return conflicts.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        writerThread.interrupt();
+
+        IllegalStateException exception = new IllegalStateException("This backend has been closed");
+        Connection connection;
+        synchronized (this) {
+            connection = this.connection;
+        }
+        if (connection != null)
+            disconnect(connection, exception);
+
+        Operation operation;
+        while ((operation = pending.poll()) != null)
+            fail(operation, exception);
+    }
+
+    private void writeLoop() {
+        List<Operation> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException ignored) {
+                break;
+            }
+            pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            Connection connection;
+            try {
+                connection = connect();
+            } catch (IOException e) {
+                // optimistic acquisitions have no future to report the failure to
+                if (batch.stream().anyMatch(operation -> operation.future == null))
+                    e.printStackTrace();
+                for (Operation operation : batch)
+                    fail(operation, e);
+                batch.clear();
+                continue;
+            }
+
+            // in-flight before writing, so the reader can always match the replies
+            long now = System.nanoTime();
+            for (Operation operation : batch)
+                operation.sentAt = now;
+            connection.inFlight.addAll(batch);
+            if (connection.closed) {
+                // disconnected in the meantime, nothing will read the replies
+                connection.failInFlight(new IOException("The connection was closed"));
+                batch.clear();
+                continue;
+            }
+
+            OutputStream outputStream = connection.outputStream;
+            try {
+                for (Operation operation : batch) {
+                    String key = keyPrefix + operation.key;
+                    writeCommand(outputStream, "SET", key, "1", "PX", Long.toString(operation.durationMillis), "NX");
+                    writeCommand(outputStream, "PTTL", key);
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                disconnect(connection, e);
+            }
+            batch.clear();
+        }
+    }
+
+    private synchronized Connection connect() throws IOException {
+        if (connection != null)
+            return connection;
+
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+        // wake up the reader regularly to check for operations waiting too long
+        socket.setSoTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, operationTimeoutMillis / 2)));
+
+        Connection connection = new Connection(socket);
+        this.connection = connection;
+
+        InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+        Thread readerThread = new Thread(() -> readLoop(connection, inputStream), "JDACommands Redis Reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return connection;
+    }
+
+    private void readLoop(Connection connection, InputStream inputStream) {
+        try {
+            while (true) {
+                awaitReply(connection, inputStream);
+                Object setReply = readReply(inputStream);
+                Object ttlReply = readReply(inputStream);
+
+                // replies only ever match operations sent over the same connection
+                Operation operation = connection.inFlight.poll();
+                if (operation == null) {
+                    if (connection.closed)
+                        return;
+                    throw new IOException("Received a reply without a request");
+                }
+
+                complete(operation, setReply, ttlReply);
+            }
+        } catch (IOException e) {
+            disconnect(connection, e);
+        }
+    }
+
+    private void awaitReply(Connection connection, InputStream inputStream) throws IOException {
+        while (true) {
+            inputStream.mark(1);
+            try {
+                if (inputStream.read() == -1)
+                    throw new EOFException();
+                inputStream.reset();
+                return;
+            } catch (SocketTimeoutException e) {
+                Operation oldest = connection.inFlight.peek();
+                long timeoutMillis = operationTimeoutMillis;
+                if (oldest != null && System.nanoTime() - oldest.sentAt > TimeUnit.MILLISECONDS.toNanos(timeoutMillis))
+                    throw new SocketTimeoutException("No reply within " + timeoutMillis + "ms");
+            }
+        }
+    }
+
+    private void disconnect(Connection connection, Throwable throwable) {
+        synchronized (this) {
+            if (this.connection == connection)
+                this.connection = null;
+        }
+        connection.closed = true;
+        try {
+            connection.socket.close();
+        } catch (IOException ignored) {}
+        connection.failInFlight(throwable);
+    }
+
+    private void complete(Operation operation, Object setReply, Object ttlReply) {
+        if (setReply instanceof RedisError || ttlReply instanceof RedisError) {
+            fail(operation, (RedisError) (setReply instanceof RedisError ? setReply : ttlReply));
+            return;
+        }
+
+        boolean acquired = "OK".equals(setReply);
+        if (ttlReply instanceof Long && (Long) ttlReply > 0) {
+            sweepNearCache();
+            nearCache.put(operation.key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos((Long) ttlReply));
+        }
+
+        if (operation.future == null) {
+            // already acquired locally, the server's expiry is in the near-cache now
+            if (!acquired)
+                conflicts.incrementAndGet();
+            return;
+        }
+        callbackExecutor.execute(() -> operation.future.complete(acquired));
+    }
+
+    private void fail(Operation operation, Throwable throwable) {
+        // optimistic acquisitions stay acquired locally
+        if (operation.future != null)
+            callbackExecutor.execute(() -> operation.future.completeExceptionally(throwable));
+    }
+
+    private void sweepNearCache() {
+        int size = nearCache.size();
+        if (size <= nextSweepSize)
+            return;
+
+        long now = System.nanoTime();
+        nearCache.values().removeIf(expiry -> expiry - now <= 0);
+        nextSweepSize = Math.max(NEAR_CACHE_SWEEP_SIZE, nearCache.size() * 2);
+    }
+
+    private static void writeCommand(OutputStream outputStream, String... arguments) throws IOException {
+        outputStream.write(('*' + Integer.toString(arguments.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (String argument : arguments) {
+            byte[] bytes = argument.getBytes(StandardCharsets.UTF_8);
+            outputStream.write(('$' + Integer.toString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            outputStream.write(bytes);
+            outputStream.write('\r');
+            outputStream.write('\n');
+        }
+    }
+
+    private static Object readReply(InputStream inputStream) throws IOException {
+        int type = inputStream.read();
+        String line = readLine(inputStream);
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                return new RedisError(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$':
+                int length = Integer.parseInt(line);
+                if (length < 0)
+                    return null;
+
+                byte[] bytes = new byte[length + 2]; // + CRLF
+                int read = 0;
+                while (read < bytes.length) {
+                    int count = inputStream.read(bytes, read, bytes.length - read);
+                    if (count < 0)
+                        throw new EOFException();
+                    read += count;
+                }
+                return new String(bytes, 0, length, StandardCharsets.UTF_8);
+            case -1:
+                throw new EOFException();
+            default:
+                throw new IOException("Unexpected reply type " + (char) type);
+        }
+    }
+
+    private static String readLine(InputStream inputStream) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        int character;
+        while ((character = inputStream.read()) != '\r') {
+            if (character == -1)
+                throw new EOFException();
+            stringBuilder.append((char) character);
+        }
+        if (inputStream.read() != '\n')
+            throw new IOException("Malformed reply");
+        return stringBuilder.toString();
+    }
+
+    private class Connection {
+
+        private final Socket socket;
+        private final OutputStream outputStream;
+        private final Queue<Operation> inFlight = new ConcurrentLinkedQueue<>();
+        private volatile boolean closed = false;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.outputStream = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void failInFlight(Throwable throwable) {
+            Operation operation;
+            while ((operation = inFlight.poll()) != null)
+                fail(operation, throwable);
+        }
+    }
+
+    private static class Operation {
+
+        private final String key;
+        private final long durationMillis;
+        private final CompletableFuture<Boolean> future;
+        private long sentAt;
+
+        private Operation(String key, long durationMillis, CompletableFuture<Boolean> future) {
+            this.key = key;
+            this.durationMillis = durationMillis;
+            this.future = future;
+        }
+    }
+
+    private static class RedisError extends IOException {
+
+        private RedisError(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.vankka.jdacommands.model;
+
+import net.dv8tion.jda.api.entities.Guild;
+
+import java.util.Locale;
+
+/**
+ * The locale provider interface, selects which message bundle is used for responses.
+ */
+public interface LocaleProvider {
+    /**
+     * Provides locales depending on guild.
+     *
+     * @param guild         The guild this locale is being requested for, may be null.
+     * @param defaultLocale The default locale, if no special locale is specified.
+     * @return The locale returned by this provider.
+     */
+    Locale provideLocale(Guild guild, Locale defaultLocale);
+}
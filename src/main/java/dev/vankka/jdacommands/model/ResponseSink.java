@@ -0,0 +1,78 @@
+package dev.vankka.jdacommands.model;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * The interface all outgoing actions of JDACommands go through.
+ * Every method takes the id of the command the action is for, null if it isn't for a specific command.
+ */
+public interface ResponseSink {
+    /**
+     * Sends a message.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param channel   The channel to send the message in.
+     * @param message   The message content.
+     * @param onSent    Called with the id of the message once it has been sent, may be null.
+     */
+    default void sendMessage(@Nullable String commandId, MessageChannel channel, CharSequence message,
+                             @Nullable LongConsumer onSent) {
+        sendMessage(commandId, channel, message, onSent, null);
+    }
+
+    /**
+     * Sends a message.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param channel   The channel to send the message in.
+     * @param message   The message content.
+     * @param onSent    Called with the id of the message once it has been sent, may be null.
+     * @param onFailure Called if the message couldn't be sent, may be null.
+     */
+    void sendMessage(@Nullable String commandId, MessageChannel channel, CharSequence message,
+                     @Nullable LongConsumer onSent, @Nullable Consumer<Throwable> onFailure);
+
+    /**
+     * Sends an embed.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param channel   The channel to send the embed in.
+     * @param embed     The embed.
+     */
+    void sendEmbed(@Nullable String commandId, MessageChannel channel, MessageEmbed embed);
+
+    /**
+     * Edits the content of a message sent by the bot.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param channel   The channel the message is in.
+     * @param messageId The id of the message.
+     * @param message   The new message content.
+     */
+    void editMessage(@Nullable String commandId, MessageChannel channel, long messageId, CharSequence message);
+
+    /**
+     * Adds a reaction to a message.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param channel   The channel the message is in.
+     * @param messageId The id of the message.
+     * @param emoji     The unicode emoji.
+     */
+    void addReaction(@Nullable String commandId, MessageChannel channel, long messageId, String emoji);
+
+    /**
+     * Sends a direct message to a user.
+     *
+     * @param commandId The id of the command this response is for, may be null.
+     * @param user      The user.
+     * @param message   The message content.
+     */
+    void sendPrivateMessage(@Nullable String commandId, User user, CharSequence message);
+}
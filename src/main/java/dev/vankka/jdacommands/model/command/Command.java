@@ -31,6 +31,26 @@ public interface Command {
      */
     List<Permission> getBotRequiredPermissions();
 
+    /**
+     * How long a user has to wait between executions of this command,
+     * shared by all processes using the same {@link dev.vankka.jdacommands.model.coordination.CoordinationBackend}.
+     *
+     * @return the cooldown in milliseconds, 0 for no cooldown
+     */
+    default long getCooldownMillis() {
+        return 0L;
+    }
+
+    /**
+     * How expensive this command is to execute, used to limit concurrent executions
+     * when a {@link dev.vankka.jdacommands.scheduling.CommandGovernor} is set.
+     *
+     * @return the cost class of this command
+     */
+    default CostClass getCostClass() {
+        return CostClass.STANDARD;
+    }
+
     CommandResult execute(CommandEvent event) throws PermissionException;
 
 }
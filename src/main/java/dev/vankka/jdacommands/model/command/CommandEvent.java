@@ -1,25 +1,66 @@
 package dev.vankka.jdacommands.model.command;
 
 import dev.vankka.jdacommands.JDACommands;
+import dev.vankka.jdacommands.object.ArgumentList;
+import dev.vankka.jdacommands.object.CommandTrace;
+import dev.vankka.jdacommands.object.MessageBundle;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.events.message.GenericMessageEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
+/**
+ * The context of a command execution. Only ids & primitive values are kept, entities are resolved
+ * from JDA's cache when requested so that long running commands don't keep the event's entities alive.
+ */
 @SuppressWarnings("unused")
 public class CommandEvent {
 
-    private final GenericMessageEvent event;
-    private final Message message;
-    private final User author;
-    private final Member member;
-    private final boolean edited;
-    private final JDACommands jdaCommands;
-    private final List<String> arguments;
-    private final String prefix;
+    private static final ThreadLocal<CommandEvent> RECYCLED = new ThreadLocal<>();
+
+    /**
+     * Gets a recycled event for the current thread (or a new one if none is available) for a message,
+     * the arguments are empty & should be added with {@link ArgumentList#tokenize(String, int)}.
+     * The event should be returned with {@link #recycle()} once the command has been processed.
+     */
+    public static CommandEvent obtain(GenericMessageEvent event, Message message, User author, boolean edited,
+                                      JDACommands jdaCommands, String prefix) {
+        CommandEvent commandEvent = RECYCLED.get();
+        if (commandEvent != null)
+            RECYCLED.remove();
+        else
+            commandEvent = new CommandEvent(new ArgumentList());
+
+        commandEvent.init(CommandSource.MESSAGE, event.getJDA(), event.getChannel(), event.getMessageIdLong(),
+                message, author, edited, jdaCommands, commandEvent.recyclableArguments, prefix);
+        return commandEvent;
+    }
+
+    private final ArgumentList recyclableArguments;
+
+    private CommandSource source;
+    private JDA jda;
+    private long guildId;
+    private long channelId;
+    private ChannelType channelType;
+    private PrivateChannel privateChannel;
+    private long messageId;
+    private String contentRaw;
+    private boolean webhookMessage;
+    private long authorId;
+    private boolean edited;
+    private JDACommands jdaCommands;
+    private List<String> arguments;
+    private String prefix;
+    private String commandId;
+    private CommandTrace trace;
+    private boolean retained;
 
     public CommandEvent(MessageReceivedEvent event, JDACommands jdaCommands, List<String> arguments, String prefix) {
         this(event, event.getMessage(), event.getAuthor(), event.getMember(), false,
@@ -33,70 +74,201 @@ public class CommandEvent {
 
     public CommandEvent(GenericMessageEvent event, Message message, User author, Member member,
                         boolean edited, JDACommands jdaCommands, List<String> arguments, String prefix) {
-        this.event = event;
-        this.message = message;
-        this.author = author;
-        this.member = member;
+        this(null);
+        init(CommandSource.MESSAGE, event.getJDA(), event.getChannel(), event.getMessageIdLong(), message,
+                author, edited, jdaCommands, arguments, prefix);
+    }
+
+    public CommandEvent(MessageReactionAddEvent event, JDACommands jdaCommands, List<String> arguments, String prefix) {
+        this(null);
+        init(CommandSource.REACTION, event.getJDA(), event.getChannel(), event.getMessageIdLong(), null,
+                event.getUser(), false, jdaCommands, arguments, prefix);
+    }
+
+    public CommandEvent(JDA jda, MessageChannel channel, User author, Member member,
+                        JDACommands jdaCommands, List<String> arguments, String prefix) {
+        this(null);
+        init(CommandSource.INTERACTION, jda, channel, 0L, null, author, false, jdaCommands, arguments, prefix);
+    }
+
+    private CommandEvent(ArgumentList recyclableArguments) {
+        this.recyclableArguments = recyclableArguments;
+    }
+
+    private void init(CommandSource source, JDA jda, MessageChannel channel, long messageId, Message message,
+                      User author, boolean edited, JDACommands jdaCommands, List<String> arguments, String prefix) {
+        this.source = source;
+        this.jda = jda;
+        this.channelId = channel.getIdLong();
+        this.channelType = channel.getType();
+        this.guildId = channel instanceof TextChannel ? ((TextChannel) channel).getGuild().getIdLong() : 0L;
+        // private channels & the users of them aren't guaranteed to be cached
+        this.privateChannel = channel instanceof PrivateChannel ? (PrivateChannel) channel : null;
+        this.messageId = messageId;
+        this.contentRaw = message != null ? message.getContentRaw() : null;
+        this.webhookMessage = message != null && message.isWebhookMessage();
+        this.authorId = author.getIdLong();
         this.edited = edited;
         this.jdaCommands = jdaCommands;
         this.arguments = arguments;
         this.prefix = prefix;
+        this.commandId = null;
+        this.trace = null;
+        this.retained = false;
+    }
+
+    /**
+     * Keeps this event from being recycled, must be called by anything that uses the event
+     * after the command has been processed (for example, in a callback) if the command is
+     * {@link CommandProperty#SYNCHRONOUS}.
+     */
+    public void retain() {
+        this.retained = true;
+    }
+
+    /**
+     * Returns this event for reuse by {@link #obtain}, unless it has been retained or wasn't obtained from there.
+     */
+    public void recycle() {
+        if (retained || recyclableArguments == null)
+            return;
+
+        recyclableArguments.clear();
+        jda = null;
+        privateChannel = null;
+        contentRaw = null;
+        jdaCommands = null;
+        arguments = null;
+        prefix = null;
+        commandId = null;
+        trace = null;
+        RECYCLED.set(this);
+    }
+
+    public CommandSource getSource() {
+        return source;
     }
 
     public JDA getJDA() {
-        return event.getJDA();
+        return jda;
     }
 
+    /**
+     * @return the channel, may be null if the channel is no longer cached
+     */
+    @Nullable
     public MessageChannel getChannel() {
-        return event.getChannel();
+        return channelType == ChannelType.TEXT ? jda.getTextChannelById(channelId) : privateChannel;
     }
 
+    public long getChannelIdLong() {
+        return channelId;
+    }
+
+    /**
+     * The id of the message this command originated from, for reactions this is the message that was reacted to.
+     *
+     * @return the message id, "0" for interactions
+     */
     public String getMessageId() {
-        return event.getMessageId();
+        return Long.toUnsignedString(messageId);
     }
 
     public long getMessageIdLong() {
-        return event.getMessageIdLong();
+        return messageId;
     }
 
     public boolean isFromType(ChannelType channelType) {
-        return event.isFromType(channelType);
+        return this.channelType == channelType;
     }
 
     public ChannelType getChannelType() {
-        return event.getChannelType();
+        return channelType;
     }
 
+    @Nullable
     public Guild getGuild() {
-        return event.getGuild();
+        return guildId != 0L ? jda.getGuildById(guildId) : null;
     }
 
+    /**
+     * @return the id of the guild, 0 if this command wasn't executed in a guild
+     */
+    public long getGuildIdLong() {
+        return guildId;
+    }
+
+    /**
+     * @return the text channel, may be null if the channel is no longer cached
+     * @throws IllegalStateException if this command wasn't executed in a TextChannel
+     */
+    @Nullable
     public TextChannel getTextChannel() {
-        return event.getTextChannel();
+        if (channelType != ChannelType.TEXT)
+            throw new IllegalStateException("This command was not executed in a TextChannel");
+        return jda.getTextChannelById(channelId);
     }
 
     public PrivateChannel getPrivateChannel() {
-        return event.getPrivateChannel();
+        if (privateChannel == null)
+            throw new IllegalStateException("This command was not executed in a PrivateChannel");
+        return privateChannel;
     }
 
     public boolean isWebhookMessage() {
-        return message.isWebhookMessage();
+        return webhookMessage;
     }
 
-    public GenericMessageEvent getEvent() {
-        return this.event;
+    /**
+     * The raw content of the message that was parsed for this command.
+     *
+     * @return the content, null unless {@link #getSource()} is {@link CommandSource#MESSAGE}
+     */
+    @Nullable
+    public String getContentRaw() {
+        return contentRaw;
     }
 
-    public Message getMessage() {
-        return this.message;
+    /**
+     * Retrieves the message this command originated from, for reactions this is the message that was reacted to.
+     *
+     * @return the RestAction retrieving the message
+     * @throws IllegalStateException if this command originated from an interaction or the channel is no longer cached
+     */
+    public RestAction<Message> retrieveMessage() {
+        if (source == CommandSource.INTERACTION)
+            throw new IllegalStateException("Interactions don't have a message");
+
+        MessageChannel channel = getChannel();
+        if (channel == null)
+            throw new IllegalStateException("The channel is no longer cached");
+        return channel.retrieveMessageById(messageId);
     }
 
+    /**
+     * @return the author, may be null if the user is no longer cached
+     */
+    @Nullable
     public User getAuthor() {
-        return this.author;
+        User author = jda.getUserById(authorId);
+        return author == null && privateChannel != null ? privateChannel.getUser() : author;
     }
 
+    public String getAuthorId() {
+        return Long.toUnsignedString(authorId);
+    }
+
+    public long getAuthorIdLong() {
+        return authorId;
+    }
+
+    /**
+     * @return the member, null if this command wasn't executed in a guild or the member is no longer cached
+     */
+    @Nullable
     public Member getMember() {
-        return this.member;
+        Guild guild = getGuild();
+        return guild != null ? guild.getMemberById(authorId) : null;
     }
 
     public boolean isEdited() {
@@ -129,4 +301,41 @@ public class CommandEvent {
     public String getPrefix() {
         return prefix;
     }
+
+    /**
+     * Provided by JDACommands
+     *
+     * @return the message bundle for the guild this command was executed in
+     */
+    public MessageBundle getMessageBundle() {
+        return jdaCommands.getMessageBundle(getGuild());
+    }
+
+    /**
+     * Provided by JDACommands
+     *
+     * @return the id of the command being executed, null if not dispatched by JDACommands
+     */
+    @Nullable
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public void setCommandId(@Nullable String commandId) {
+        this.commandId = commandId;
+    }
+
+    /**
+     * Provided by JDACommands
+     *
+     * @return the trace for this invocation, null if this invocation isn't sampled
+     */
+    @Nullable
+    public CommandTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(@Nullable CommandTrace trace) {
+        this.trace = trace;
+    }
 }
@@ -2,5 +2,10 @@ package dev.vankka.jdacommands.model.command;
 
 public enum CommandProperty {
     GUILD_ONLY,
-    BOT_OWNER_ONLY
+    BOT_OWNER_ONLY,
+    /**
+     * The command doesn't use its {@link CommandEvent} after execute returns,
+     * allowing the event to be reused when event recycling is enabled.
+     */
+    SYNCHRONOUS
 }
@@ -1,7 +1,12 @@
 package dev.vankka.jdacommands.model.command;
 
+import dev.vankka.jdacommands.object.MessageBundle;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
 public interface CommandResult {
 
     enum Generic implements CommandResult {
@@ -36,4 +41,91 @@ public interface CommandResult {
             return message;
         }
     }
+
+    class Embed implements CommandResult {
+
+        private final MessageEmbed embed;
+
+        public Embed(@NotNull MessageEmbed embed) {
+            this.embed = embed;
+        }
+
+        @NotNull
+        public MessageEmbed getEmbed() {
+            return embed;
+        }
+    }
+
+    /**
+     * A message rendered from the {@link MessageBundle} selected for the guild the command was executed in.
+     */
+    class Template implements CommandResult {
+
+        private final String key;
+        private final Object[] arguments;
+
+        public Template(@NotNull String key, Object... arguments) {
+            this.key = key;
+            this.arguments = arguments;
+        }
+
+        @NotNull
+        public String getKey() {
+            return key;
+        }
+
+        @NotNull
+        public Object[] getArguments() {
+            return arguments;
+        }
+    }
+
+    /**
+     * A large output that is sent as one or more messages, chunks are only pulled from the iterator
+     * when the previous message has been sent and are split at line boundaries to fit into messages.
+     */
+    class Streamed implements CommandResult {
+
+        private final Iterator<String> chunks;
+
+        public Streamed(@NotNull Iterator<String> chunks) {
+            this.chunks = chunks;
+        }
+
+        public Streamed(@NotNull Iterable<String> chunks) {
+            this(chunks.iterator());
+        }
+
+        @NotNull
+        public Iterator<String> getChunks() {
+            return chunks;
+        }
+    }
+
+    /**
+     * A single message that can be navigated between pages with reactions by the user who ran the command.
+     * Pages are rendered on demand, each page should fit in a single message.
+     */
+    class Paginated implements CommandResult {
+
+        private final int pageCount;
+        private final IntFunction<String> pageRenderer;
+
+        public Paginated(int pageCount, @NotNull IntFunction<String> pageRenderer) {
+            if (pageCount < 1)
+                throw new IllegalArgumentException("pageCount must be positive");
+
+            this.pageCount = pageCount;
+            this.pageRenderer = pageRenderer;
+        }
+
+        public int getPageCount() {
+            return pageCount;
+        }
+
+        @NotNull
+        public IntFunction<String> getPageRenderer() {
+            return pageRenderer;
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package dev.vankka.jdacommands.model.command;
+
+/**
+ * Where a {@link CommandEvent} originated from.
+ */
+public enum CommandSource {
+    /**
+     * A message (or message edit) that was matched against the prefix & tokenized.
+     */
+    MESSAGE,
+    /**
+     * A reaction added to a message sent by the bot, see {@link ReactionTrigger}.
+     */
+    REACTION,
+    /**
+     * A pre-tokenized interaction payload dispatched directly by command id.
+     */
+    INTERACTION
+}
@@ -0,0 +1,16 @@
+package dev.vankka.jdacommands.model.command;
+
+/**
+ * How expensive a command is to execute, used by the {@link dev.vankka.jdacommands.scheduling.CommandGovernor}.
+ */
+public enum CostClass {
+    /**
+     * Quick commands (help, ping), executed in their own lane that other commands can't take permits from.
+     */
+    CHEAP,
+    STANDARD,
+    /**
+     * Expensive commands (image generation, exports), additionally limited to a share of the standard lane.
+     */
+    HEAVY
+}
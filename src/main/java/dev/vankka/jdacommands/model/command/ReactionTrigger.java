@@ -0,0 +1,41 @@
+package dev.vankka.jdacommands.model.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A command that is dispatched when a reaction is added to a message sent by the bot.
+ */
+public class ReactionTrigger {
+
+    private final String commandId;
+    private final List<String> arguments;
+
+    public ReactionTrigger(@NotNull String commandId, String... arguments) {
+        this.commandId = commandId;
+        this.arguments = Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    /**
+     * The id of the command to dispatch, any of the command's aliases.
+     *
+     * @return the command id
+     */
+    @NotNull
+    public String getCommandId() {
+        return commandId;
+    }
+
+    /**
+     * The arguments the command will receive.
+     *
+     * @return the unmodifiable list of arguments
+     */
+    @NotNull
+    public List<String> getArguments() {
+        return arguments;
+    }
+}
@@ -0,0 +1,32 @@
+package dev.vankka.jdacommands.model.coordination;
+
+import dev.vankka.jdacommands.JDACommands;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared state for cooldowns & deduplication, used by the default command preprocessor of {@link JDACommands}.
+ * Processes sharing a backend share cooldowns & won't run the same message twice.
+ */
+public interface CoordinationBackend {
+
+    /**
+     * The prefix of the keys JDACommands acquires to make sure a message only runs a command once.
+     */
+    String DEDUPLICATION_KEY_PREFIX = "dedupe:";
+
+    /**
+     * The prefix of the keys JDACommands acquires for per user command cooldowns.
+     */
+    String COOLDOWN_KEY_PREFIX = "cooldown:";
+
+    /**
+     * Tries to acquire the given key, only one caller (across everything sharing this backend)
+     * acquires the key until it expires.
+     *
+     * @param key            The key to acquire
+     * @param durationMillis How long the key is held for, in milliseconds
+     * @return A future completing with true if the key was acquired, false if it was already held
+     */
+    CompletableFuture<Boolean> tryAcquire(String key, long durationMillis);
+}
@@ -0,0 +1,15 @@
+package dev.vankka.jdacommands.model.trace;
+
+import dev.vankka.jdacommands.object.CommandTrace;
+
+/**
+ * Receives sampled {@link CommandTrace}s once a command invocation has finished.
+ */
+public interface TraceListener {
+    /**
+     * Called on the thread that finished the invocation, should return quickly.
+     *
+     * @param trace The finished trace, stages that were not reached have a timestamp of 0
+     */
+    void onTrace(CommandTrace trace);
+}
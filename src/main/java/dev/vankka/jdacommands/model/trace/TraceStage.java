@@ -0,0 +1,35 @@
+package dev.vankka.jdacommands.model.trace;
+
+/**
+ * The stages of the command pipeline, in order, that are timestamped in a {@link dev.vankka.jdacommands.object.CommandTrace}.
+ */
+public enum TraceStage {
+    /**
+     * The event was received.
+     */
+    RECEIVED,
+    /**
+     * The prefix was provided by the {@link dev.vankka.jdacommands.model.PrefixProvider} & matched.
+     */
+    PREFIX_RESOLVED,
+    /**
+     * The command was looked up.
+     */
+    COMMAND_RESOLVED,
+    /**
+     * Command properties & bot permissions were checked.
+     */
+    PERMISSIONS_CHECKED,
+    /**
+     * Cooldown & deduplication were acquired from the {@link dev.vankka.jdacommands.model.coordination.CoordinationBackend}.
+     */
+    COORDINATED,
+    /**
+     * The command was executed.
+     */
+    EXECUTED,
+    /**
+     * The result was processed & its response queued.
+     */
+    RESULT_PROCESSED
+}
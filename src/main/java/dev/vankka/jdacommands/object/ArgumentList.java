@@ -0,0 +1,92 @@
+package dev.vankka.jdacommands.object;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A mutable list of command arguments backed by an array that is kept when cleared, so it can be reused.
+ */
+public class ArgumentList extends AbstractList<String> implements RandomAccess {
+
+    private String[] elements = new String[8];
+    private int size = 0;
+
+    /**
+     * Adds the space separated tokens of the given content, starting at the given index.
+     * Empty tokens are kept except at the end, like {@link String#split(String)}.
+     *
+     * @param content the content to tokenize
+     * @param start   the index to start from
+     */
+    public void tokenize(String content, int start) {
+        int length = content.length();
+        while (start < length) {
+            int end = content.indexOf(' ', start);
+            if (end == -1)
+                end = length;
+
+            add(content.substring(start, end));
+            start = end + 1;
+        }
+
+        while (size > 0 && elements[size - 1].isEmpty())
+            elements[--size] = null;
+    }
+
+    @Override
+    public String get(int index) {
+        rangeCheck(index);
+        return elements[index];
+    }
+
+    @Override
+    public String set(int index, String element) {
+        rangeCheck(index);
+        String previous = elements[index];
+        elements[index] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, String element) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        if (size == elements.length)
+            elements = Arrays.copyOf(elements, size * 2);
+
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public String remove(int index) {
+        rangeCheck(index);
+        String previous = elements[index];
+
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -0,0 +1,294 @@
+package dev.vankka.jdacommands.object;
+
+import dev.vankka.jdacommands.model.command.Command;
+import dev.vankka.jdacommands.model.command.CommandCategory;
+import dev.vankka.jdacommands.model.command.CommandProperty;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable index of registered commands.
+ * <p>
+ * Every command gets a slot, its {@link CommandProperty properties} are compiled into a bitmask once
+ * & per context (guild or direct message, bot owner or not) the visible commands are kept as a bitset over the slots,
+ * so visibility checks & counts don't go through the property lists.
+ * {@link #update(List)} only compiles commands that weren't in the previous index.
+ */
+public final class CommandIndex {
+
+    public static final CommandIndex EMPTY = new CommandIndex();
+
+    private static final int GUILD_CONTEXT = 1;
+    private static final int OWNER_CONTEXT = 2;
+    private static final int CONTEXT_COUNT = 4;
+
+    private final Map<String, Command> commands;
+    private final Map<Command, String> commandIds;
+    private final Map<Command, Integer> slots;
+    private final int[] propertyMasks;
+    private final long[][] visibility;
+    private final CommandCategory[] categoryOrder;
+    private final Map<CommandCategory, Category> categories;
+
+    private CommandIndex() {
+        this.commands = Collections.emptyMap();
+        this.commandIds = Collections.emptyMap();
+        this.slots = Collections.emptyMap();
+        this.propertyMasks = new int[0];
+        this.visibility = new long[CONTEXT_COUNT][0];
+        this.categoryOrder = new CommandCategory[0];
+        this.categories = Collections.emptyMap();
+    }
+
+    private CommandIndex(Map<String, Command> commands, Map<Command, String> commandIds, Map<Command, Integer> slots,
+                         int[] propertyMasks, long[][] visibility, CommandCategory[] categoryOrder,
+                         Map<CommandCategory, Category> categories) {
+        this.commands = commands;
+        this.commandIds = commandIds;
+        this.slots = slots;
+        this.propertyMasks = propertyMasks;
+        this.visibility = visibility;
+        this.categoryOrder = categoryOrder;
+        this.categories = categories;
+    }
+
+    /**
+     * Compiles a list of properties into a bitmask.
+     *
+     * @param properties the properties
+     * @return the bitmask, with the bit {@code 1 << property.ordinal()} set for each property
+     */
+    public static int compile(Collection<CommandProperty> properties) {
+        int mask = 0;
+        for (CommandProperty property : properties)
+            mask |= 1 << property.ordinal();
+        return mask;
+    }
+
+    /**
+     * Creates a index for the given categories, commands & categories that haven't changed since this index was
+     * created keep their slots, compiled properties & bitsets.
+     *
+     * @param commandCategories the categories to index
+     * @return the new index, or this index if nothing changed
+     */
+    public CommandIndex update(List<CommandCategory> commandCategories) {
+        if (!changed(commandCategories))
+            return this;
+
+        // keep the slots of commands that are still registered, give new commands free slots
+        Map<Command, Integer> slots = new IdentityHashMap<>();
+        Set<Command> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CommandCategory commandCategory : commandCategories) {
+            for (Command command : commandCategory.getCommands()) {
+                Integer slot = this.slots.get(command);
+                if (slot != null)
+                    slots.put(command, slot);
+                else
+                    added.add(command);
+            }
+        }
+
+        int slotCount = propertyMasks.length;
+        BitSet freeSlots = new BitSet(slotCount);
+        freeSlots.set(0, slotCount);
+        for (Integer slot : slots.values())
+            freeSlots.clear(slot);
+
+        // reuse free slots first, only grow once none are left
+        int nextSlot = slotCount;
+        int freeSlot = freeSlots.nextSetBit(0);
+        for (Command command : added) {
+            int slot;
+            if (freeSlot >= 0) {
+                slot = freeSlot;
+                freeSlots.clear(slot);
+                freeSlot = freeSlots.nextSetBit(slot + 1);
+            } else {
+                slot = nextSlot++;
+            }
+            slots.put(command, slot);
+        }
+
+        int highestSlot = nextSlot - 1;
+        while (highestSlot >= 0 && freeSlots.get(highestSlot))
+            highestSlot--;
+
+        int[] propertyMasks = Arrays.copyOf(this.propertyMasks, highestSlot + 1);
+        long[][] visibility = new long[CONTEXT_COUNT][];
+        int wordCount = wordCount(highestSlot + 1);
+        for (int context = 0; context < CONTEXT_COUNT; context++)
+            visibility[context] = Arrays.copyOf(this.visibility[context], wordCount);
+
+        // slots past the highest slot were cut off, but can share its last word
+        for (int slot = freeSlots.nextSetBit(0); slot >= 0 && slot >>> 6 < wordCount; slot = freeSlots.nextSetBit(slot + 1)) {
+            if (slot <= highestSlot)
+                propertyMasks[slot] = 0;
+            for (long[] words : visibility)
+                words[slot >>> 6] &= ~(1L << slot);
+        }
+        for (Command command : added) {
+            int slot = slots.get(command);
+            int mask = compile(command.getProperties());
+            propertyMasks[slot] = mask;
+            for (int context = 0; context < CONTEXT_COUNT; context++) {
+                if (isVisible(mask, context))
+                    visibility[context][slot >>> 6] |= 1L << slot;
+                else
+                    visibility[context][slot >>> 6] &= ~(1L << slot);
+            }
+        }
+
+        Map<CommandCategory, Category> categories = new IdentityHashMap<>();
+        Map<String, Command> commands = new HashMap<>();
+        Map<Command, String> commandIds = new IdentityHashMap<>();
+        for (CommandCategory commandCategory : commandCategories) {
+            List<Command> categoryCommands = commandCategory.getCommands();
+            Category category = this.categories.get(commandCategory);
+            if (category == null || !category.matches(categoryCommands)) {
+                long[] words = new long[wordCount];
+                for (Command command : categoryCommands) {
+                    int slot = slots.get(command);
+                    words[slot >>> 6] |= 1L << slot;
+                }
+                category = new Category(categoryCommands, words);
+            }
+            categories.put(commandCategory, category);
+
+            for (Command command : categoryCommands) {
+                for (String alias : command.getAliases()) {
+                    String id = (alias.contains(" ") ? alias.split(" ")[0] : alias).toLowerCase(Locale.ROOT);
+                    commands.putIfAbsent(id, command);
+                    commandIds.putIfAbsent(command, id);
+                }
+            }
+        }
+
+        return new CommandIndex(commands, commandIds, slots, propertyMasks, visibility,
+                commandCategories.toArray(new CommandCategory[0]), categories);
+    }
+
+    /**
+     * Gets a command by its id.
+     *
+     * @param commandId the lower case command id
+     * @return the command or null if no command matched
+     */
+    @Nullable
+    public Command getCommand(String commandId) {
+        return commands.get(commandId);
+    }
+
+    /**
+     * Gets the id of a indexed command.
+     *
+     * @param command the command
+     * @return the id of the command, null if the command isn't indexed
+     */
+    @Nullable
+    public String getCommandId(Command command) {
+        return commandIds.get(command);
+    }
+
+    /**
+     * Checks if a command has a property, using the compiled properties if the command is indexed.
+     *
+     * @param command  the command
+     * @param property the property
+     * @return true if the command has the property
+     */
+    public boolean hasProperty(Command command, CommandProperty property) {
+        Integer slot = slots.get(command);
+        int mask = slot != null ? propertyMasks[slot] : compile(command.getProperties());
+        return (mask & (1 << property.ordinal())) != 0;
+    }
+
+    /**
+     * Checks if a command can be used in a context.
+     *
+     * @param command the command
+     * @param guild   if the context is a guild
+     * @param owner   if the user is the bot owner
+     * @return true if the command isn't restricted from the context by its properties
+     */
+    public boolean isVisible(Command command, boolean guild, boolean owner) {
+        Integer slot = slots.get(command);
+        if (slot == null)
+            return isVisible(compile(command.getProperties()), context(guild, owner));
+
+        return (visibility[context(guild, owner)][slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Counts the commands of a category that can be used in a context.
+     *
+     * @param commandCategory the category
+     * @param guild           if the context is a guild
+     * @param owner           if the user is the bot owner
+     * @return the amount of visible commands, 0 if the category isn't indexed
+     */
+    public int countVisible(CommandCategory commandCategory, boolean guild, boolean owner) {
+        Category category = categories.get(commandCategory);
+        if (category == null)
+            return 0;
+
+        long[] visible = visibility[context(guild, owner)];
+        long[] words = category.words;
+        int count = 0;
+        for (int i = 0; i < words.length && i < visible.length; i++)
+            count += Long.bitCount(words[i] & visible[i]);
+        return count;
+    }
+
+    private boolean changed(List<CommandCategory> commandCategories) {
+        // the order decides which command gets a shared alias
+        if (commandCategories.size() != categoryOrder.length)
+            return true;
+
+        int i = 0;
+        for (CommandCategory commandCategory : commandCategories) {
+            if (commandCategory != categoryOrder[i++]
+                    || !categories.get(commandCategory).matches(commandCategory.getCommands()))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isVisible(int mask, int context) {
+        if ((mask & (1 << CommandProperty.GUILD_ONLY.ordinal())) != 0 && (context & GUILD_CONTEXT) == 0)
+            return false;
+        return (mask & (1 << CommandProperty.BOT_OWNER_ONLY.ordinal())) == 0 || (context & OWNER_CONTEXT) != 0;
+    }
+
+    private static int context(boolean guild, boolean owner) {
+        return (guild ? GUILD_CONTEXT : 0) | (owner ? OWNER_CONTEXT : 0);
+    }
+
+    private static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static class Category {
+
+        private final Command[] commands;
+        private final long[] words;
+
+        private Category(List<Command> commands, long[] words) {
+            this.commands = commands.toArray(new Command[0]);
+            this.words = words;
+        }
+
+        private boolean matches(List<Command> commands) {
+            if (commands.size() != this.commands.length)
+                return false;
+
+            int i = 0;
+            for (Command command : commands) {
+                if (command != this.commands[i++])
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev.vankka.jdacommands.object;
+
+import dev.vankka.jdacommands.model.command.CommandSource;
+import dev.vankka.jdacommands.model.trace.TraceStage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monotonic ({@link System#nanoTime()}) timestamps for each {@link TraceStage} of one command invocation.
+ */
+public class CommandTrace {
+
+    private static final TraceStage[] STAGES = TraceStage.values();
+
+    private final long[] timestamps = new long[STAGES.length];
+    private final CommandSource source;
+    private String commandId;
+
+    public CommandTrace(CommandSource source) {
+        this.source = source;
+    }
+
+    public CommandSource getSource() {
+        return source;
+    }
+
+    /**
+     * The id of the command, null if no command was resolved.
+     *
+     * @return the command id
+     */
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public void setCommandId(String commandId) {
+        this.commandId = commandId;
+    }
+
+    public void mark(TraceStage stage) {
+        timestamps[stage.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * @param stage the stage
+     * @return the timestamp for the stage, 0 if the stage was not reached
+     */
+    public long getTimestamp(TraceStage stage) {
+        return timestamps[stage.ordinal()];
+    }
+
+    /**
+     * Gets the time spent reaching the given stage since the previous reached stage.
+     *
+     * @param stage the stage
+     * @return the duration in nanoseconds, -1 if the stage was not reached
+     */
+    public long getStageNanos(TraceStage stage) {
+        long timestamp = timestamps[stage.ordinal()];
+        if (timestamp == 0L)
+            return -1L;
+
+        for (int i = stage.ordinal() - 1; i >= 0; i--) {
+            if (timestamps[i] != 0L)
+                return timestamp - timestamps[i];
+        }
+        return 0L;
+    }
+
+    /**
+     * @return the time between the first & last reached stage in nanoseconds
+     */
+    public long getTotalNanos() {
+        long first = 0L;
+        long last = 0L;
+        for (long timestamp : timestamps) {
+            if (timestamp == 0L)
+                continue;
+            if (first == 0L)
+                first = timestamp;
+            last = timestamp;
+        }
+        return last - first;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder()
+                .append(commandId).append(' ').append(source)
+                .append(" total=").append(TimeUnit.NANOSECONDS.toMicros(getTotalNanos())).append("us");
+        for (TraceStage stage : STAGES) {
+            long nanos = getStageNanos(stage);
+            if (nanos > 0L)
+                stringBuilder.append(' ').append(stage).append('=').append(TimeUnit.NANOSECONDS.toMicros(nanos)).append("us");
+        }
+        return stringBuilder.toString();
+    }
+}
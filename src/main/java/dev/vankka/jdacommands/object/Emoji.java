@@ -7,5 +7,8 @@ public class Emoji {
     public static String WHITE_CHECK_MARK = "✅";
     public static String CROWN = "\uD83D\uDC51";
     public static String GEAR = "⚙️";
+    public static String HOURGLASS = "⏳";
+    public static String ARROW_LEFT = "⬅";
+    public static String ARROW_RIGHT = "➡";
 
 }
@@ -0,0 +1,72 @@
+package dev.vankka.jdacommands.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A set of {@link MessageTemplate}s for a locale, compiled from a {@link ResourceBundle} when loaded.
+ */
+public class MessageBundle {
+
+    public static final String DEFAULT_BASE_NAME = "jdacommands/messages";
+
+    /**
+     * Loads & compiles the bundle for the given locale, falling back to the base bundle instead of the JVM's locale.
+     *
+     * @param baseName the resource bundle base name
+     * @param locale   the locale
+     * @return the compiled bundle
+     * @throws MissingResourceException if no bundle was found
+     */
+    public static MessageBundle load(@NotNull String baseName, @NotNull Locale locale) {
+        ResourceBundle resourceBundle = ResourceBundle.getBundle(baseName, locale,
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String key : resourceBundle.keySet())
+            templates.put(key, MessageTemplate.compile(resourceBundle.getString(key)));
+
+        return new MessageBundle(locale, templates);
+    }
+
+    private final Locale locale;
+    private final Map<String, MessageTemplate> templates;
+
+    public MessageBundle(@NotNull Locale locale, @NotNull Map<String, MessageTemplate> templates) {
+        this.locale = locale;
+        this.templates = templates;
+    }
+
+    @NotNull
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Gets a template from this bundle.
+     *
+     * @param key the key of the template
+     * @return the template
+     * @throws MissingResourceException if the key doesn't exist in this bundle
+     */
+    @NotNull
+    public MessageTemplate get(@NotNull String key) {
+        MessageTemplate template = templates.get(key);
+        if (template == null)
+            throw new MissingResourceException("Missing message " + key, MessageBundle.class.getName(), key);
+        return template;
+    }
+
+    /**
+     * Renders a template from this bundle.
+     *
+     * @param key       the key of the template
+     * @param arguments the arguments for the template
+     * @return the rendered message
+     * @throws MissingResourceException if the key doesn't exist in this bundle
+     */
+    public String render(@NotNull String key, Object... arguments) {
+        return get(key).render(arguments);
+    }
+}
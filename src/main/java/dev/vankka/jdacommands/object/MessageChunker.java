@@ -0,0 +1,107 @@
+package dev.vankka.jdacommands.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Combines lazily provided chunks of text into messages that fit within Discord's message length limit.
+ * Messages are split at line boundaries where possible, chunks are only pulled when the next message is requested.
+ * Closing the chunker closes the chunk iterator if it is {@link AutoCloseable}.
+ */
+public class MessageChunker implements Iterator<String>, AutoCloseable {
+
+    public static final int MESSAGE_LIMIT = 2000;
+
+    private final Iterator<String> chunks;
+    private final int limit;
+    private String pending = "";
+    private String next;
+
+    public MessageChunker(@NotNull Iterator<String> chunks) {
+        this(chunks, MESSAGE_LIMIT);
+    }
+
+    public MessageChunker(@NotNull Iterator<String> chunks, int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("limit must be positive");
+
+        this.chunks = chunks;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String message = nextMessage();
+            if (message == null)
+                return false;
+            if (!message.trim().isEmpty())
+                next = message;
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        String message = next;
+        next = null;
+        return message;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (chunks instanceof AutoCloseable)
+            ((AutoCloseable) chunks).close();
+    }
+
+    private String nextMessage() {
+        StringBuilder stringBuilder = new StringBuilder();
+        while (true) {
+            if (pending.isEmpty()) {
+                if (!chunks.hasNext())
+                    break;
+
+                String chunk = chunks.next();
+                pending = chunk != null ? chunk : "";
+                continue;
+            }
+
+            int remaining = limit - stringBuilder.length();
+            if (pending.length() <= remaining) {
+                stringBuilder.append(pending);
+                pending = "";
+                continue;
+            }
+
+            int lineEnd = pending.lastIndexOf('\n', remaining - 1);
+            if (lineEnd >= 0) {
+                stringBuilder.append(pending, 0, lineEnd + 1);
+                pending = pending.substring(lineEnd + 1);
+            } else if (stringBuilder.length() == 0) {
+                // a single line longer than the limit
+                int end = cutIndex(pending, limit);
+                stringBuilder.append(pending, 0, end);
+                pending = pending.substring(end);
+            }
+            break;
+        }
+
+        return stringBuilder.length() > 0 ? stringBuilder.toString() : null;
+    }
+
+    /**
+     * Gets where to cut text that is too long, without splitting a surrogate pair.
+     *
+     * @param text  the text
+     * @param limit the maximum length, at most the length of the text
+     * @return the index to cut at, limit or limit - 1
+     */
+    public static int cutIndex(CharSequence text, int limit) {
+        return limit > 1 && Character.isHighSurrogate(text.charAt(limit - 1)) ? limit - 1 : limit;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.vankka.jdacommands.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message with positional placeholders ({@code {0}}, {@code {1}}, ...), compiled once into segments.
+ * Any other use of braces, including indexes with more than 9 digits, is kept as-is.
+ */
+public class MessageTemplate {
+
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+    private static final int MAX_INDEX_DIGITS = 9; // always fits in an int
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Compiles the given pattern.
+     *
+     * @param pattern the pattern, for example {@code "{0} Missing permission, `{1}`"}
+     * @return the compiled template
+     */
+    public static MessageTemplate compile(@NotNull String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> argumentIndexes = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = 0;
+        while ((index = pattern.indexOf('{', index)) != -1) {
+            int end = index + 1;
+            while (end < pattern.length() && Character.isDigit(pattern.charAt(end)))
+                end++;
+
+            int digits = end - index - 1;
+            if (digits == 0 || digits > MAX_INDEX_DIGITS || end == pattern.length() || pattern.charAt(end) != '}') {
+                index++;
+                continue;
+            }
+
+            literals.add(pattern.substring(literalStart, index));
+            argumentIndexes.add(Integer.parseInt(pattern.substring(index + 1, end)));
+            literalStart = index = end + 1;
+        }
+        literals.add(pattern.substring(literalStart));
+
+        int[] indexes = new int[argumentIndexes.size()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = argumentIndexes.get(i);
+
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), indexes);
+    }
+
+    private final String pattern;
+    private final String[] literals;
+    private final int[] argumentIndexes;
+
+    private MessageTemplate(String pattern, String[] literals, int[] argumentIndexes) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Renders this template with a reused per-thread builder.
+     *
+     * @param arguments the arguments for the placeholders, missing arguments are rendered as-is
+     * @return the rendered message
+     */
+    public String render(Object... arguments) {
+        if (argumentIndexes.length == 0)
+            return literals[0];
+
+        StringBuilder stringBuilder = BUILDER.get();
+        stringBuilder.setLength(0);
+        appendTo(stringBuilder, arguments);
+
+        String result = stringBuilder.toString();
+        if (stringBuilder.capacity() > MAX_RETAINED_CAPACITY)
+            BUILDER.remove();
+        return result;
+    }
+
+    /**
+     * Renders this template into the given builder.
+     *
+     * @param stringBuilder the builder to append to
+     * @param arguments     the arguments for the placeholders, missing arguments are rendered as-is
+     * @return the given builder
+     */
+    public StringBuilder appendTo(StringBuilder stringBuilder, Object... arguments) {
+        stringBuilder.append(literals[0]);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            int argumentIndex = argumentIndexes[i];
+            if (argumentIndex < arguments.length)
+                stringBuilder.append(arguments[argumentIndex]);
+            else
+                stringBuilder.append('{').append(argumentIndex).append('}');
+
+            stringBuilder.append(literals[i + 1]);
+        }
+        return stringBuilder;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,72 @@
+package dev.vankka.jdacommands.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntFunction;
+
+/**
+ * The navigation state of a paginated message, only the currently visible page is rendered.
+ */
+public class Paginator {
+
+    private final String commandId;
+    private final long messageId;
+    private final long userId;
+    private final int pageCount;
+    private final IntFunction<String> pageRenderer;
+    private int page = 0;
+
+    public Paginator(String commandId, long messageId, long userId, int pageCount,
+                     @NotNull IntFunction<String> pageRenderer) {
+        this.commandId = commandId;
+        this.messageId = messageId;
+        this.userId = userId;
+        this.pageCount = pageCount;
+        this.pageRenderer = pageRenderer;
+    }
+
+    /**
+     * The id of the command that created this paginator.
+     *
+     * @return the command id, may be null
+     */
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public long getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * The id of the user who is allowed to navigate this paginator.
+     *
+     * @return the user id
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public synchronized int getPage() {
+        return page;
+    }
+
+    /**
+     * Moves the paginator by the given amount of pages.
+     *
+     * @param offset the amount of pages to move, negative to go backwards
+     * @return the newly visible page's content, or null if the page did not change
+     */
+    public synchronized String move(int offset) {
+        int newPage = Math.max(0, Math.min(pageCount - 1, page + offset));
+        if (newPage == page)
+            return null;
+
+        page = newPage;
+        return pageRenderer.apply(page);
+    }
+}
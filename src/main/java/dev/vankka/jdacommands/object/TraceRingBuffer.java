@@ -0,0 +1,47 @@
+package dev.vankka.jdacommands.object;
+
+import dev.vankka.jdacommands.model.trace.TraceListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link TraceListener} keeping the most recent traces, which can be dumped on demand.
+ */
+public class TraceRingBuffer implements TraceListener {
+
+    private final AtomicReferenceArray<CommandTrace> traces;
+    private final AtomicLong position = new AtomicLong();
+
+    public TraceRingBuffer(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.traces = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void onTrace(CommandTrace trace) {
+        traces.set((int) (position.getAndIncrement() % traces.length()), trace);
+    }
+
+    /**
+     * Gets the most recent traces.
+     *
+     * @return the traces, oldest first
+     */
+    public List<CommandTrace> dump() {
+        long end = position.get();
+        int capacity = traces.length();
+
+        List<CommandTrace> dump = new ArrayList<>(capacity);
+        for (long i = Math.max(0L, end - capacity); i < end; i++) {
+            CommandTrace trace = traces.get((int) (i % capacity));
+            if (trace != null)
+                dump.add(trace);
+        }
+        return dump;
+    }
+}
@@ -0,0 +1,176 @@
+package dev.vankka.jdacommands.response;
+
+import dev.vankka.jdacommands.model.ResponseSink;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link ResponseSink} that records all actions in memory instead of sending them, for tests & benchmarks.
+ * Sent messages get sequential fake message ids & their callbacks are run on the sending thread before the send returns.
+ * Messages sent from a callback have their callbacks run after that callback returns instead of nested inside it,
+ * so sending the next message from a callback (like streamed results are) doesn't grow the stack per message.
+ */
+public class CapturingResponseSink implements ResponseSink {
+
+    public enum Type {
+        MESSAGE,
+        EMBED,
+        EDIT,
+        REACTION,
+        PRIVATE_MESSAGE
+    }
+
+    private final List<Response> responses = new ArrayList<>();
+    private final AtomicLong nextMessageId = new AtomicLong(1L);
+    private final ThreadLocal<Deque<Runnable>> pendingCallbacks = new ThreadLocal<>();
+
+    @Override
+    public void sendMessage(@Nullable String commandId, MessageChannel channel, CharSequence message,
+                            @Nullable LongConsumer onSent, @Nullable Consumer<Throwable> onFailure) {
+        long messageId = nextMessageId.getAndIncrement();
+        capture(new Response(Type.MESSAGE, commandId, channel.getIdLong(), messageId, message.toString(), null));
+        if (onSent != null)
+            runCallback(() -> onSent.accept(messageId));
+    }
+
+    @Override
+    public void sendEmbed(@Nullable String commandId, MessageChannel channel, MessageEmbed embed) {
+        capture(new Response(Type.EMBED, commandId, channel.getIdLong(),
+                nextMessageId.getAndIncrement(), null, embed));
+    }
+
+    @Override
+    public void editMessage(@Nullable String commandId, MessageChannel channel, long messageId, CharSequence message) {
+        capture(new Response(Type.EDIT, commandId, channel.getIdLong(), messageId, message.toString(), null));
+    }
+
+    @Override
+    public void addReaction(@Nullable String commandId, MessageChannel channel, long messageId, String emoji) {
+        capture(new Response(Type.REACTION, commandId, channel.getIdLong(), messageId, emoji, null));
+    }
+
+    @Override
+    public void sendPrivateMessage(@Nullable String commandId, User user, CharSequence message) {
+        capture(new Response(Type.PRIVATE_MESSAGE, commandId, user.getIdLong(),
+                nextMessageId.getAndIncrement(), message.toString(), null));
+    }
+
+    private void runCallback(Runnable callback) {
+        Deque<Runnable> callbacks = pendingCallbacks.get();
+        if (callbacks != null) {
+            // called from a callback, it's run once that returns
+            callbacks.add(callback);
+            return;
+        }
+
+        callbacks = new ArrayDeque<>();
+        pendingCallbacks.set(callbacks);
+        try {
+            do {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            } while ((callback = callbacks.poll()) != null);
+        } finally {
+            pendingCallbacks.remove();
+        }
+    }
+
+    private synchronized void capture(Response response) {
+        responses.add(response);
+    }
+
+    /**
+     * @return a snapshot of all captured responses, in order
+     */
+    public synchronized List<Response> getResponses() {
+        return new ArrayList<>(responses);
+    }
+
+    /**
+     * @param commandId the command id, may be null
+     * @return a snapshot of the captured responses for the given command, in order
+     */
+    public synchronized List<Response> getResponses(@Nullable String commandId) {
+        List<Response> commandResponses = new ArrayList<>();
+        for (Response response : responses) {
+            if (Objects.equals(response.commandId, commandId))
+                commandResponses.add(response);
+        }
+        return commandResponses;
+    }
+
+    public synchronized void clear() {
+        responses.clear();
+    }
+
+    public static class Response {
+
+        private final Type type;
+        private final String commandId;
+        private final long channelId;
+        private final long messageId;
+        private final String content;
+        private final MessageEmbed embed;
+
+        private Response(Type type, String commandId, long channelId, long messageId, String content, MessageEmbed embed) {
+            this.type = type;
+            this.commandId = commandId;
+            this.channelId = channelId;
+            this.messageId = messageId;
+            this.content = content;
+            this.embed = embed;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        @Nullable
+        public String getCommandId() {
+            return commandId;
+        }
+
+        /**
+         * @return the channel id, the user id for private messages
+         */
+        public long getChannelId() {
+            return channelId;
+        }
+
+        public long getMessageId() {
+            return messageId;
+        }
+
+        /**
+         * @return the message content, or the emoji for reactions, null for embeds
+         */
+        @Nullable
+        public String getContent() {
+            return content;
+        }
+
+        @Nullable
+        public MessageEmbed getEmbed() {
+            return embed;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + commandId + " " + channelId + "/" + messageId + ": " + (embed != null ? embed : content);
+        }
+    }
+}
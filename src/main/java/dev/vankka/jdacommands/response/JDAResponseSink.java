@@ -0,0 +1,120 @@
+package dev.vankka.jdacommands.response;
+
+import dev.vankka.jdacommands.model.ResponseSink;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * The default {@link ResponseSink}, queues the actions with JDA & counts the REST actions queued per command.
+ * Private channels are cached per user, so repeated direct messages don't open the channel again.
+ */
+public class JDAResponseSink implements ResponseSink {
+
+    /**
+     * The key REST actions that aren't for a specific command are counted under.
+     */
+    public static final String NO_COMMAND = "";
+
+    private final Map<String, LongAdder> restActions = new ConcurrentHashMap<>();
+    private final Map<Long, PrivateChannel> privateChannels;
+
+    public JDAResponseSink() {
+        this(1000);
+    }
+
+    /**
+     * @param maxCachedPrivateChannels the amount of private channels to cache, least recently used are removed first
+     */
+    public JDAResponseSink(int maxCachedPrivateChannels) {
+        this.privateChannels = Collections.synchronizedMap(
+                new LinkedHashMap<Long, PrivateChannel>(16, 0.75F, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, PrivateChannel> eldest) {
+                        return size() > maxCachedPrivateChannels;
+                    }
+                });
+    }
+
+    @Override
+    public void sendMessage(@Nullable String commandId, MessageChannel channel, CharSequence message,
+                            @Nullable LongConsumer onSent, @Nullable Consumer<Throwable> onFailure) {
+        count(commandId);
+        MessageAction messageAction = channel.sendMessage(message);
+        // null callbacks use JDA's defaults
+        messageAction.queue(onSent != null ? sent -> onSent.accept(sent.getIdLong()) : null,
+                onFailure != null ? onFailure::accept : null);
+    }
+
+    @Override
+    public void sendEmbed(@Nullable String commandId, MessageChannel channel, MessageEmbed embed) {
+        count(commandId);
+        channel.sendMessage(embed).queue();
+    }
+
+    @Override
+    public void editMessage(@Nullable String commandId, MessageChannel channel, long messageId, CharSequence message) {
+        count(commandId);
+        channel.editMessageById(messageId, message).queue();
+    }
+
+    @Override
+    public void addReaction(@Nullable String commandId, MessageChannel channel, long messageId, String emoji) {
+        count(commandId);
+        channel.addReactionById(messageId, emoji).queue();
+    }
+
+    @Override
+    public void sendPrivateMessage(@Nullable String commandId, User user, CharSequence message) {
+        PrivateChannel privateChannel = privateChannels.get(user.getIdLong());
+        if (privateChannel != null) {
+            sendMessage(commandId, privateChannel, message, null);
+            return;
+        }
+
+        count(commandId);
+        user.openPrivateChannel().queue(opened -> {
+            privateChannels.put(user.getIdLong(), opened);
+            sendMessage(commandId, opened, message, null);
+        });
+    }
+
+    /**
+     * Gets the amount of REST actions queued for a command.
+     *
+     * @param commandId the command id, {@link #NO_COMMAND} for actions not for a specific command
+     * @return the amount of REST actions
+     */
+    public long getRestActionCount(String commandId) {
+        LongAdder count = restActions.get(commandId);
+        return count != null ? count.sum() : 0L;
+    }
+
+    /**
+     * Gets the amount of REST actions queued for each command.
+     *
+     * @return a snapshot of the counts by command id
+     */
+    public Map<String, Long> getRestActionCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        restActions.forEach((commandId, count) -> counts.put(commandId, count.sum()));
+        return counts;
+    }
+
+    public void resetRestActionCounts() {
+        restActions.clear();
+    }
+
+    private void count(@Nullable String commandId) {
+        restActions.computeIfAbsent(commandId != null ? commandId : NO_COMMAND, key -> new LongAdder()).increment();
+    }
+}
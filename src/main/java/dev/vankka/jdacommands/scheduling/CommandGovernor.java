@@ -0,0 +1,311 @@
+package dev.vankka.jdacommands.scheduling;
+
+import dev.vankka.jdacommands.model.command.CostClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many commands execute at once, globally & per guild, depending on their {@link CostClass}.
+ * <p>
+ * {@link CostClass#CHEAP} commands have their own lane, {@link CostClass#STANDARD} & {@link CostClass#HEAVY} commands
+ * share a lane in which heavy commands may only take part of the permits. The per guild limit applies to the shared lane.
+ * Each lane executes its commands on its own executor, never on the submitting thread, so a heavy command doesn't
+ * hold up the event thread or the cheap lane.
+ * Commands that can't get a permit are queued (up to a limit per lane) & handed to their lane's executor
+ * when a permit is released, cheap commands first.
+ * Thread pools created by the governor are stopped with {@link #shutdown()}.
+ */
+public class CommandGovernor {
+
+    public enum Submission {
+        /**
+         * The task got a permit & was handed to its lane's executor.
+         */
+        ACCEPTED,
+        /**
+         * The task was queued & will be executed when a permit is released,
+         * or rejected later if the lane's executor rejects it or the governor is shut down.
+         */
+        DEFERRED,
+        /**
+         * The task was not executed because the lane's queue is full, the lane's executor rejected it
+         * or the governor is shut down.
+         */
+        REJECTED
+    }
+
+    private final int maxCheap;
+    private final int maxShared;
+    private final int maxHeavy;
+    private final int maxPerGuild;
+    private final int maxQueued;
+    private final Executor cheapExecutor;
+    private final Executor sharedExecutor;
+    private final boolean ownsExecutors;
+
+    private final Deque<Pending> cheapQueue = new ArrayDeque<>();
+    private final Deque<Pending> sharedQueue = new ArrayDeque<>();
+    private final Map<Long, Integer> guildPermits = new HashMap<>();
+    private int cheapPermits = 0;
+    private int sharedPermits = 0;
+    private int heavyPermits = 0;
+    private boolean shutdown = false;
+
+    /**
+     * Creates a governor with a thread pool per lane, sized to the lane's permits.
+     *
+     * @param maxCheap    the maximum amount of cheap commands executing at once
+     * @param maxShared   the maximum amount of standard & heavy commands executing at once
+     * @param maxHeavy    the maximum amount of heavy commands executing at once, at most maxShared
+     * @param maxPerGuild the maximum amount of standard & heavy commands executing at once in a single guild
+     * @param maxQueued   the maximum amount of commands waiting for a permit, per lane
+     */
+    public CommandGovernor(int maxCheap, int maxShared, int maxHeavy, int maxPerGuild, int maxQueued) {
+        this(Executors.newFixedThreadPool(Math.max(maxCheap, 1), new LaneThreadFactory("Cheap")),
+                Executors.newFixedThreadPool(Math.max(maxShared, 1), new LaneThreadFactory("Shared")),
+                maxCheap, maxShared, maxHeavy, maxPerGuild, maxQueued, true);
+    }
+
+    /**
+     * @param cheapExecutor  the executor cheap commands are executed on
+     * @param sharedExecutor the executor standard & heavy commands are executed on
+     * @param maxCheap    the maximum amount of cheap commands executing at once
+     * @param maxShared   the maximum amount of standard & heavy commands executing at once
+     * @param maxHeavy    the maximum amount of heavy commands executing at once, at most maxShared
+     * @param maxPerGuild the maximum amount of standard & heavy commands executing at once in a single guild
+     * @param maxQueued   the maximum amount of commands waiting for a permit, per lane
+     */
+    public CommandGovernor(Executor cheapExecutor, Executor sharedExecutor,
+                           int maxCheap, int maxShared, int maxHeavy, int maxPerGuild, int maxQueued) {
+        this(cheapExecutor, sharedExecutor, maxCheap, maxShared, maxHeavy, maxPerGuild, maxQueued, false);
+    }
+
+    private CommandGovernor(Executor cheapExecutor, Executor sharedExecutor, int maxCheap, int maxShared,
+                            int maxHeavy, int maxPerGuild, int maxQueued, boolean ownsExecutors) {
+        if (maxCheap < 1 || maxShared < 1 || maxHeavy < 1 || maxPerGuild < 1 || maxQueued < 0)
+            throw new IllegalArgumentException("Permit limits must be positive");
+        if (maxHeavy > maxShared)
+            throw new IllegalArgumentException("maxHeavy can't be larger than maxShared");
+
+        this.maxCheap = maxCheap;
+        this.maxShared = maxShared;
+        this.maxHeavy = maxHeavy;
+        this.maxPerGuild = maxPerGuild;
+        this.maxQueued = maxQueued;
+        this.cheapExecutor = cheapExecutor;
+        this.sharedExecutor = sharedExecutor;
+        this.ownsExecutors = ownsExecutors;
+    }
+
+    /**
+     * Hands the task to its lane's executor if a permit is available, otherwise queues it if the lane's queue isn't full.
+     * The task is never executed on the calling thread.
+     *
+     * @param costClass the cost class of the command
+     * @param guildId   the guild the command is executed in, 0 if not executed in a guild
+     * @param task      the task executing the command
+     * @return what happened to the task
+     */
+    public Submission submit(CostClass costClass, long guildId, Runnable task) {
+        return submit(costClass, guildId, task, null);
+    }
+
+    /**
+     * Hands the task to its lane's executor if a permit is available, otherwise queues it if the lane's queue isn't full.
+     * The task is never executed on the calling thread.
+     *
+     * @param costClass  the cost class of the command
+     * @param guildId    the guild the command is executed in, 0 if not executed in a guild
+     * @param task       the task executing the command
+     * @param onRejected called once if the task won't be executed, also if it was already {@link Submission#DEFERRED}
+     * @return what happened to the task
+     */
+    public Submission submit(CostClass costClass, long guildId, Runnable task, @Nullable Runnable onRejected) {
+        Pending pending = new Pending(costClass, guildId, task, onRejected);
+        boolean acquired = false;
+        synchronized (this) {
+            if (!shutdown) {
+                acquired = tryAcquire(costClass, guildId);
+                Deque<Pending> queue = costClass == CostClass.CHEAP ? cheapQueue : sharedQueue;
+                if (!acquired && queue.size() < maxQueued) {
+                    queue.add(pending);
+                    return Submission.DEFERRED;
+                }
+            }
+        }
+
+        if (!acquired) {
+            // rejected outside the lock, the callback may respond to the command
+            reject(pending);
+            return Submission.REJECTED;
+        }
+        return execute(pending) ? Submission.ACCEPTED : Submission.REJECTED;
+    }
+
+    /**
+     * Stops accepting tasks & rejects the queued tasks, tasks that are already executing are completed.
+     * Thread pools created by the governor are shut down, executors given to the governor are left running.
+     */
+    public void shutdown() {
+        List<Pending> queued = new ArrayList<>();
+        synchronized (this) {
+            shutdown = true;
+            queued.addAll(cheapQueue);
+            queued.addAll(sharedQueue);
+            cheapQueue.clear();
+            sharedQueue.clear();
+        }
+
+        for (Pending pending : queued)
+            reject(pending);
+        if (ownsExecutors) {
+            ((ExecutorService) cheapExecutor).shutdown();
+            ((ExecutorService) sharedExecutor).shutdown();
+        }
+    }
+
+    // the permit for the task must be held, it's released if the executor rejects the task
+    private boolean execute(Pending pending) {
+        Executor executor = pending.costClass == CostClass.CHEAP ? cheapExecutor : sharedExecutor;
+        try {
+            executor.execute(() -> run(pending));
+            return true;
+        } catch (RejectedExecutionException e) {
+            e.printStackTrace();
+            reject(pending);
+            releaseAndExecuteNext(pending);
+            return false;
+        }
+    }
+
+    private void reject(Pending pending) {
+        if (pending.onRejected == null)
+            return;
+
+        try {
+            pending.onRejected.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void run(Pending pending) {
+        try {
+            pending.task.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            releaseAndExecuteNext(pending);
+        }
+    }
+
+    private void releaseAndExecuteNext(Pending pending) {
+        List<Pending> next = new ArrayList<>(1);
+        synchronized (this) {
+            release(pending.costClass, pending.guildId);
+
+            Pending acquired;
+            while ((acquired = pollAcquirable()) != null)
+                next.add(acquired);
+        }
+
+        for (Pending acquired : next)
+            execute(acquired);
+    }
+
+    private boolean tryAcquire(CostClass costClass, long guildId) {
+        if (costClass == CostClass.CHEAP) {
+            if (cheapPermits >= maxCheap)
+                return false;
+
+            cheapPermits++;
+            return true;
+        }
+
+        if (sharedPermits >= maxShared || (costClass == CostClass.HEAVY && heavyPermits >= maxHeavy))
+            return false;
+        if (guildId != 0L && guildPermits.getOrDefault(guildId, 0) >= maxPerGuild)
+            return false;
+
+        sharedPermits++;
+        if (costClass == CostClass.HEAVY)
+            heavyPermits++;
+        if (guildId != 0L)
+            guildPermits.merge(guildId, 1, Integer::sum);
+        return true;
+    }
+
+    private void release(CostClass costClass, long guildId) {
+        if (costClass == CostClass.CHEAP) {
+            cheapPermits--;
+            return;
+        }
+
+        sharedPermits--;
+        if (costClass == CostClass.HEAVY)
+            heavyPermits--;
+        if (guildId != 0L)
+            guildPermits.computeIfPresent(guildId, (key, permits) -> permits > 1 ? permits - 1 : null);
+    }
+
+    // cheap commands first, then the first shared command that isn't blocked by its guild or the heavy limit
+    private Pending pollAcquirable() {
+        Pending pending = cheapQueue.peek();
+        if (pending != null && tryAcquire(pending.costClass, pending.guildId))
+            return cheapQueue.poll();
+
+        for (Iterator<Pending> iterator = sharedQueue.iterator(); iterator.hasNext(); ) {
+            pending = iterator.next();
+            if (tryAcquire(pending.costClass, pending.guildId)) {
+                iterator.remove();
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    private static class LaneThreadFactory implements ThreadFactory {
+
+        private final String lane;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private LaneThreadFactory(String lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "JDACommands " + lane + " Lane #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static class Pending {
+
+        private final CostClass costClass;
+        private final long guildId;
+        private final Runnable task;
+        private final Runnable onRejected;
+
+        private Pending(CostClass costClass, long guildId, Runnable task, Runnable onRejected) {
+            this.costClass = costClass;
+            this.guildId = guildId;
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+    }
+}
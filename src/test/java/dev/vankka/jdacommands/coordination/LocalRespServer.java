@@ -0,0 +1,174 @@
+package dev.vankka.jdacommands.coordination;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for a Redis server, supporting only the commands {@link RedisCoordinationBackend} uses.
+ */
+class LocalRespServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private final AtomicInteger commands = new AtomicInteger();
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    private volatile int disconnectAfter = -1;
+    private volatile boolean stalled = false;
+
+    LocalRespServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+        Thread acceptThread = new Thread(this::acceptLoop, "LocalRespServer Accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the amount of commands received, over all connections
+     */
+    int getCommandCount() {
+        return commands.get();
+    }
+
+    int getConnectionCount() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * Closes the connection without replying once the given amount of commands in total have been received.
+     *
+     * @param commandCount the total amount of commands, -1 to never disconnect
+     */
+    void disconnectAfter(int commandCount) {
+        this.disconnectAfter = commandCount;
+    }
+
+    /**
+     * Keeps connections open, but stops replying to the commands received while stalled.
+     *
+     * @param stalled if commands shouldn't be replied to
+     */
+    void setStalled(boolean stalled) {
+        this.stalled = stalled;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections)
+            connection.close();
+    }
+
+    private void acceptLoop() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                acceptedConnections.incrementAndGet();
+                connections.add(socket);
+
+                Thread connectionThread = new Thread(() -> handle(socket), "LocalRespServer Connection");
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            }
+        } catch (IOException ignored) {
+            // closed
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket ignored = socket) {
+            InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+            OutputStream outputStream = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                String[] command = readCommand(inputStream);
+                if (command == null)
+                    return;
+
+                if (commands.incrementAndGet() == disconnectAfter) {
+                    disconnectAfter = -1;
+                    return;
+                }
+
+                if (stalled)
+                    continue;
+
+                outputStream.write(execute(command).getBytes(StandardCharsets.UTF_8));
+                if (inputStream.available() == 0)
+                    outputStream.flush();
+            }
+        } catch (IOException ignored) {
+            // client disconnected
+        }
+    }
+
+    private String execute(String[] command) {
+        long now = System.nanoTime();
+        switch (command[0]) {
+            case "SET":
+                // SET key value PX millis NX
+                long expiry = now + TimeUnit.MILLISECONDS.toNanos(Long.parseLong(command[4]));
+                boolean[] set = new boolean[1];
+                expiries.compute(command[1], (key, current) -> {
+                    if (current != null && current - now > 0)
+                        return current;
+
+                    set[0] = true;
+                    return expiry;
+                });
+                return set[0] ? "+OK\r\n" : "$-1\r\n";
+            case "PTTL":
+                Long current = expiries.get(command[1]);
+                if (current == null || current - now <= 0)
+                    return ":-2\r\n";
+                return ":" + Math.max(1L, TimeUnit.NANOSECONDS.toMillis(current - now)) + "\r\n";
+            default:
+                return "-ERR unknown command '" + command[0] + "'\r\n";
+        }
+    }
+
+    private static String[] readCommand(InputStream inputStream) throws IOException {
+        String header = readLine(inputStream);
+        if (header == null)
+            return null;
+        if (header.charAt(0) != '*')
+            throw new IOException("Expected an array, got " + header);
+
+        String[] arguments = new String[Integer.parseInt(header.substring(1))];
+        for (int i = 0; i < arguments.length; i++) {
+            String lengthLine = readLine(inputStream);
+            if (lengthLine == null || lengthLine.charAt(0) != '$')
+                throw new IOException("Expected a bulk string, got " + lengthLine);
+
+            byte[] bytes = new byte[Integer.parseInt(lengthLine.substring(1)) + 2];
+            new DataInputStream(inputStream).readFully(bytes);
+            arguments[i] = new String(bytes, 0, bytes.length - 2, StandardCharsets.UTF_8);
+        }
+        return arguments;
+    }
+
+    private static String readLine(InputStream inputStream) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        int character;
+        while ((character = inputStream.read()) != '\r') {
+            if (character == -1)
+                return null;
+            stringBuilder.append((char) character);
+        }
+        inputStream.read();
+        return stringBuilder.toString();
+    }
+}
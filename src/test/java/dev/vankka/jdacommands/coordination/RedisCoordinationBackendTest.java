@@ -0,0 +1,215 @@
+package dev.vankka.jdacommands.coordination;
+
+import dev.vankka.jdacommands.model.coordination.CoordinationBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class RedisCoordinationBackendTest {
+
+    private final List<RedisCoordinationBackend> backends = new ArrayList<>();
+    private LocalRespServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new LocalRespServer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (RedisCoordinationBackend backend : backends)
+            backend.close();
+        server.close();
+    }
+
+    @Test
+    public void strictAcquisitionWaitsForServer() throws Exception {
+        RedisCoordinationBackend backend = backend(false);
+
+        assertTrue(get(backend.tryAcquire("key", 10_000)));
+        assertFalse(get(backend.tryAcquire("key", 10_000)));
+        assertFalse(get(backend(false).tryAcquire("key", 10_000)));
+    }
+
+    @Test
+    public void nearCacheAnswersHeldKeysUntilTheyExpire() throws Exception {
+        RedisCoordinationBackend backend = backend(false);
+
+        assertTrue(get(backend.tryAcquire("key", 200)));
+        int commandCount = server.getCommandCount();
+
+        CompletableFuture<Boolean> held = backend.tryAcquire("key", 200);
+        assertTrue(held.isDone());
+        assertFalse(get(held));
+        assertEquals("held key went to the server", commandCount, server.getCommandCount());
+
+        Thread.sleep(300);
+        assertTrue(get(backend.tryAcquire("key", 200)));
+        assertTrue(server.getCommandCount() > commandCount);
+    }
+
+    @Test
+    public void repliesMatchRequestsAfterReconnect() throws Exception {
+        RedisCoordinationBackend backend = backend(false);
+
+        server.disconnectAfter(1);
+        try {
+            get(backend.tryAcquire("lost", 10_000));
+            fail("Acquisition didn't fail when the connection was closed");
+        } catch (ExecutionException expected) {
+            // in flight when the connection was closed
+        }
+
+        RedisCoordinationBackend other = backend(false);
+        for (int i = 0; i < 50; i += 2)
+            assertTrue(get(other.tryAcquire("key" + i, 10_000)));
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            futures.add(backend.tryAcquire("key" + i, 10_000));
+        for (int i = 0; i < 50; i++)
+            assertEquals("key" + i, i % 2 != 0, get(futures.get(i)));
+
+        assertEquals(3, server.getConnectionCount());
+    }
+
+    @Test
+    public void stalledServerFailsInFlightAcquisitions() throws Exception {
+        RedisCoordinationBackend backend = backend(false);
+        backend.setOperationTimeoutMillis(200);
+        assertTrue(get(backend.tryAcquire("before", 10_000)));
+
+        server.setStalled(true);
+        CompletableFuture<Boolean> stalled = backend.tryAcquire("stalled", 10_000);
+        try {
+            get(stalled);
+            fail("Acquisition didn't fail when the server stopped replying");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof SocketTimeoutException);
+        }
+
+        server.setStalled(false);
+        RedisCoordinationBackend other = backend(false);
+        for (int i = 0; i < 50; i += 2)
+            assertTrue(get(other.tryAcquire("key" + i, 10_000)));
+
+        // a new connection, replies match the operations sent over it
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            futures.add(backend.tryAcquire("key" + i, 10_000));
+        for (int i = 0; i < 50; i++)
+            assertEquals("key" + i, i % 2 != 0, get(futures.get(i)));
+
+        assertEquals(3, server.getConnectionCount());
+    }
+
+    @Test
+    public void closedBackendReturnsFailedFuture() throws Exception {
+        RedisCoordinationBackend backend = backend(false);
+        backend.close();
+
+        CompletableFuture<Boolean> future = backend.tryAcquire("key", 10_000);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void optimisticAcquisitionDoesNotWaitForServer() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        RedisCoordinationBackend backend = new RedisCoordinationBackend("127.0.0.1", port, "test:", Runnable::run);
+        backend.setOptimisticKeyPrefixes(CoordinationBackend.COOLDOWN_KEY_PREFIX);
+        backends.add(backend);
+
+        CompletableFuture<Boolean> acquired = backend.tryAcquire("cooldown:key", 10_000);
+        assertTrue(acquired.isDone());
+        assertTrue(get(acquired));
+
+        CompletableFuture<Boolean> held = backend.tryAcquire("cooldown:key", 10_000);
+        assertTrue(held.isDone());
+        assertFalse(get(held));
+
+        try {
+            get(backend.tryAcquire("dedupe:key", 10_000));
+            fail("Deduplication key was acquired without the server");
+        } catch (ExecutionException expected) {
+            // strict, the server isn't reachable
+        }
+    }
+
+    @Test
+    public void strictByDefault() throws Exception {
+        RedisCoordinationBackend first = backend(false);
+        RedisCoordinationBackend second = backend(false);
+
+        assertTrue(get(first.tryAcquire("cooldown:key", 10_000)));
+        assertFalse(get(second.tryAcquire("cooldown:key", 10_000)));
+    }
+
+    @Test
+    public void deduplicationKeysAreNeverOptimistic() throws Exception {
+        RedisCoordinationBackend first = backend(true);
+        RedisCoordinationBackend second = backend(true);
+
+        assertTrue(get(first.tryAcquire("dedupe:message", 10_000)));
+        assertFalse(get(second.tryAcquire("dedupe:message", 10_000)));
+        assertEquals(0, second.getConflictCount());
+
+        for (String prefix : new String[] {"", "d", "dedupe:", "dedupe:message"}) {
+            try {
+                first.setOptimisticKeyPrefixes(prefix);
+                fail("Prefix " + prefix + " matching deduplication keys was accepted");
+            } catch (IllegalArgumentException expected) {
+                // matches deduplication keys
+            }
+        }
+    }
+
+    @Test
+    public void optimisticConflictsAreReconciled() throws Exception {
+        RedisCoordinationBackend first = backend(true);
+        RedisCoordinationBackend second = backend(true);
+
+        assertTrue(get(first.tryAcquire("cooldown:key", 10_000)));
+        waitFor(() -> server.getCommandCount() >= 2);
+
+        // not known to be held by the second backend yet
+        assertTrue(get(second.tryAcquire("cooldown:key", 10_000)));
+        waitFor(() -> second.getConflictCount() == 1);
+
+        assertEquals(0, first.getConflictCount());
+        assertFalse(get(second.tryAcquire("cooldown:key", 10_000)));
+    }
+
+    private RedisCoordinationBackend backend(boolean optimistic) {
+        RedisCoordinationBackend backend = new RedisCoordinationBackend("127.0.0.1", server.getPort(), "test:",
+                Runnable::run);
+        if (optimistic)
+            backend.setOptimisticKeyPrefixes(CoordinationBackend.COOLDOWN_KEY_PREFIX);
+        backends.add(backend);
+        return backend;
+    }
+
+    private static boolean get(CompletableFuture<Boolean> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0)
+                fail("Timed out waiting for condition");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package dev.vankka.jdacommands.model.command;
+
+import dev.vankka.jdacommands.object.ArgumentList;
+import dev.vankka.jdacommands.object.CommandTrace;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CommandEventTest {
+
+    private static final JDA JDA = proxy(JDA.class, "getIdLong", 0L);
+    private static final MessageChannel CHANNEL = (MessageChannel) Proxy.newProxyInstance(
+            MessageChannel.class.getClassLoader(), new Class<?>[] {MessageChannel.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getIdLong":
+                        return 2L;
+                    case "getType":
+                        return ChannelType.PRIVATE;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    private static final User AUTHOR = proxy(User.class, "getIdLong", 3L);
+
+    @After
+    public void tearDown() {
+        // don't leave a recycled event for the next test on this thread
+        CommandEvent.obtain(event(0L), message("!cmd"), AUTHOR, false, null, "!");
+    }
+
+    @Test
+    public void recycledEventsAreReused() {
+        CommandEvent first = obtain(1L, "!cmd a b");
+        first.recycle();
+
+        assertSame(first, obtain(2L, "!cmd"));
+        assertNotSame(first, obtain(3L, "!cmd"));
+    }
+
+    @Test
+    public void recycleClearsThePreviousInvocation() {
+        CommandEvent first = obtain(1L, "!cmd a b");
+        first.setCommandId("cmd");
+        first.setTrace(new CommandTrace(CommandSource.MESSAGE));
+        first.recycle();
+
+        assertNull(first.getContentRaw());
+        assertNull(first.getPrefix());
+        assertNull(first.getCommandId());
+        assertNull(first.getTrace());
+        assertNull(first.getArguments());
+
+        CommandEvent second = CommandEvent.obtain(event(2L), message("?other"), AUTHOR, true, null, "?");
+        assertSame(first, second);
+        assertEquals(2L, second.getMessageIdLong());
+        assertEquals("?other", second.getContentRaw());
+        assertEquals("?", second.getPrefix());
+        assertTrue(second.isEdited());
+        assertNull(second.getCommandId());
+        assertNull(second.getTrace());
+        assertEquals(Collections.emptyList(), second.getArguments());
+    }
+
+    @Test
+    public void retainedEventsAreNotReused() {
+        CommandEvent first = obtain(1L, "!cmd a b");
+        first.setCommandId("cmd");
+        first.retain();
+        first.recycle();
+
+        // still usable by whatever retained it
+        assertEquals("!cmd a b", first.getContentRaw());
+        assertEquals("cmd", first.getCommandId());
+        assertEquals(Arrays.asList("a", "b"), first.getArguments());
+
+        CommandEvent second = obtain(2L, "!cmd");
+        assertNotSame(first, second);
+        assertEquals(Arrays.asList("a", "b"), first.getArguments());
+
+        // the event that took its place is recycled as usual
+        second.recycle();
+        assertSame(second, obtain(3L, "!cmd"));
+    }
+
+    @Test
+    public void constructedEventsAreNotReused() {
+        CommandEvent constructed = new CommandEvent(event(1L), message("!cmd"), AUTHOR, null, false, null,
+                new ArgumentList(), "!");
+        constructed.recycle();
+
+        assertEquals("!cmd", constructed.getContentRaw());
+        assertNotSame(constructed, obtain(2L, "!cmd"));
+    }
+
+    private static CommandEvent obtain(long messageId, String content) {
+        CommandEvent commandEvent = CommandEvent.obtain(event(messageId), message(content), AUTHOR, false, null, "!");
+        int commandEnd = content.indexOf(' ');
+        if (commandEnd != -1)
+            ((ArgumentList) commandEvent.getArguments()).tokenize(content, commandEnd + 1);
+        return commandEvent;
+    }
+
+    private static GenericMessageEvent event(long messageId) {
+        return new GenericMessageEvent(JDA, 0L, messageId, CHANNEL) {};
+    }
+
+    private static Message message(String content) {
+        return (Message) Proxy.newProxyInstance(Message.class.getClassLoader(), new Class<?>[] {Message.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getContentRaw":
+                            return content;
+                        case "isWebhookMessage":
+                            return false;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, String methodName, Object value) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName))
+                return value;
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
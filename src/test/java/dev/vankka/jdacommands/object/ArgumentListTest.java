@@ -0,0 +1,72 @@
+package dev.vankka.jdacommands.object;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArgumentListTest {
+
+    @Test
+    public void matchesSplittingOnSpaces() {
+        for (String content : new String[] {"!cmd a b", "!cmd  a", "!cmd a  b", "!cmd a ", "!cmd a   ",
+                "!cmd  ", "!cmd ", "!cmd", "!cmd é 😀"}) {
+            assertEquals(content, split(content, false), tokenize(content, false));
+        }
+    }
+
+    @Test
+    public void skipsTheMentionPrefix() {
+        for (String content : new String[] {"<@123> cmd a b", "<@123> cmd  a", "<@123> cmd a ", "<@123> cmd"})
+            assertEquals(content, split(content, true), tokenize(content, true));
+
+        assertEquals(Arrays.asList("a", "b"), tokenize("<@123> cmd a b", true));
+    }
+
+    @Test
+    public void bareCommandHasNoArguments() {
+        assertEquals(Collections.emptyList(), tokenize("!cmd", false));
+        assertEquals(Collections.emptyList(), tokenize("!cmd ", false));
+        assertEquals(Collections.emptyList(), tokenize("<@123> cmd", true));
+    }
+
+    @Test
+    public void emptyTokensAreOnlyDroppedAtTheEnd() {
+        assertEquals(Arrays.asList("", "a", "", "b"), tokenize("!cmd  a  b  ", false));
+    }
+
+    @Test
+    public void clearKeepsTheListUsable() {
+        ArgumentList arguments = new ArgumentList();
+        arguments.tokenize("a b c d e f g h i j", 0);
+        assertEquals(10, arguments.size());
+
+        arguments.clear();
+        assertTrue(arguments.isEmpty());
+        arguments.tokenize("x y", 0);
+        assertEquals(Arrays.asList("x", "y"), arguments);
+    }
+
+    // the same offsets JDACommands#preprocessEvent tokenizes from
+    private static List<String> tokenize(String content, boolean mentionPrefix) {
+        int commandStart = mentionPrefix ? content.indexOf(' ') + 1 : 0;
+        int commandEnd = content.indexOf(' ', commandStart);
+        if (commandEnd == -1)
+            commandEnd = content.length();
+
+        ArgumentList arguments = new ArgumentList();
+        arguments.tokenize(content, commandEnd + 1);
+        return new ArrayList<>(arguments);
+    }
+
+    // how arguments were split before they were tokenized in place
+    private static List<String> split(String content, boolean mentionPrefix) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(content.split(" ")));
+        arguments.subList(0, Math.min(arguments.size(), mentionPrefix ? 2 : 1)).clear();
+        return arguments;
+    }
+}
@@ -0,0 +1,156 @@
+package dev.vankka.jdacommands.object;
+
+import dev.vankka.jdacommands.model.command.*;
+import net.dv8tion.jda.api.Permission;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CommandIndexTest {
+
+    @Test
+    public void unchangedCategoriesReuseTheIndex() {
+        List<CommandCategory> categories = Collections.singletonList(category("a", command("one")));
+        CommandIndex index = CommandIndex.EMPTY.update(categories);
+
+        assertSame(index, index.update(categories));
+        assertNotSame(index, index.update(Collections.emptyList()));
+    }
+
+    @Test
+    public void visibilityMatchesProperties() {
+        List<Command> commands = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            CommandProperty[] properties = i % 4 == 0 ? new CommandProperty[0]
+                    : i % 4 == 1 ? new CommandProperty[] {CommandProperty.GUILD_ONLY}
+                    : i % 4 == 2 ? new CommandProperty[] {CommandProperty.BOT_OWNER_ONLY}
+                    : new CommandProperty[] {CommandProperty.GUILD_ONLY, CommandProperty.BOT_OWNER_ONLY};
+            commands.add(command("command" + i, properties));
+        }
+        List<CommandCategory> categories = Arrays.asList(category("a", commands.subList(0, 100)),
+                category("b", commands.subList(100, 150)));
+
+        assertIndexed(CommandIndex.EMPTY.update(categories), categories);
+    }
+
+    @Test
+    public void removedAndAddedCommandsInOneUpdateGetDistinctSlots() {
+        Command kept = command("kept");
+        List<Command> commands = new ArrayList<>(Arrays.asList(kept, command("removed1"), command("removed2"),
+                command("removed3")));
+        List<CommandCategory> categories = Collections.singletonList(category("a", commands));
+        CommandIndex index = CommandIndex.EMPTY.update(categories);
+
+        Command ownerOnly = command("owner", CommandProperty.BOT_OWNER_ONLY);
+        commands.clear();
+        commands.addAll(Arrays.asList(kept, ownerOnly, command("added1"), command("added2"), command("added3"),
+                command("added4", CommandProperty.GUILD_ONLY)));
+        index = index.update(categories);
+
+        assertFalse(index.isVisible(ownerOnly, true, false));
+        assertTrue(index.isVisible(ownerOnly, true, true));
+        assertNull(index.getCommand("removed1"));
+        assertIndexed(index, categories);
+    }
+
+    @Test
+    public void removedCommandsAreNoLongerCounted() {
+        Command guildOnly = command("guild", CommandProperty.GUILD_ONLY);
+        List<Command> commands = new ArrayList<>(Arrays.asList(command("first"), guildOnly, command("last")));
+        CommandCategory category = category("a", commands);
+        List<CommandCategory> categories = new ArrayList<>(Collections.singletonList(category));
+        CommandIndex index = CommandIndex.EMPTY.update(categories);
+
+        commands.remove(2);
+        index = index.update(categories);
+        assertIndexed(index, categories);
+
+        categories.clear();
+        index = index.update(categories);
+        assertEquals(0, index.countVisible(category, true, true));
+        assertNull(index.getCommand("first"));
+        assertTrue(index.hasProperty(guildOnly, CommandProperty.GUILD_ONLY));
+    }
+
+    private static void assertIndexed(CommandIndex index, List<CommandCategory> categories) {
+        for (boolean guild : new boolean[] {false, true}) {
+            for (boolean owner : new boolean[] {false, true}) {
+                for (CommandCategory category : categories) {
+                    int visible = 0;
+                    for (Command command : category.getCommands()) {
+                        List<CommandProperty> properties = command.getProperties();
+                        boolean expected = (guild || !properties.contains(CommandProperty.GUILD_ONLY))
+                                && (owner || !properties.contains(CommandProperty.BOT_OWNER_ONLY));
+                        assertEquals(command.getDescription(), expected, index.isVisible(command, guild, owner));
+                        for (CommandProperty property : CommandProperty.values())
+                            assertEquals(properties.contains(property), index.hasProperty(command, property));
+                        assertSame(command, index.getCommand(command.getDescription()));
+
+                        if (expected)
+                            visible++;
+                    }
+                    assertEquals(category.getName(), visible, index.countVisible(category, guild, owner));
+                }
+            }
+        }
+    }
+
+    private static Command command(String name, CommandProperty... properties) {
+        List<String> aliases = Collections.singletonList(name + " <argument>");
+        List<CommandProperty> propertyList = Arrays.asList(properties);
+        return new Command() {
+            @Override
+            public String getDescription() {
+                return name;
+            }
+
+            @Override
+            public List<String> getAliases() {
+                return aliases;
+            }
+
+            @Override
+            public List<CommandProperty> getProperties() {
+                return propertyList;
+            }
+
+            @Override
+            public List<Permission> getBotRequiredPermissions() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public CommandResult execute(CommandEvent event) {
+                return CommandResult.Generic.SUCCESS_HANDLED;
+            }
+        };
+    }
+
+    private static CommandCategory category(String name, Command... commands) {
+        return category(name, Arrays.asList(commands));
+    }
+
+    private static CommandCategory category(String name, List<Command> commands) {
+        return new CommandCategory() {
+            @Override
+            public String getDescription() {
+                return name;
+            }
+
+            @Override
+            public List<Command> getCommands() {
+                return commands;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package dev.vankka.jdacommands.object;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MessageChunkerTest {
+
+    @Test
+    public void splitsAtLineBoundaries() {
+        List<String> messages = chunk(10, "first\nsecond\n", "third");
+
+        assertEquals(Arrays.asList("first\n", "second\n", "third"), messages);
+    }
+
+    @Test
+    public void cutsLongLinesAtTheLimit() {
+        List<String> messages = chunk(4, "abcdefghij");
+
+        assertEquals(Arrays.asList("abcd", "efgh", "ij"), messages);
+    }
+
+    @Test
+    public void doesNotSplitSurrogatePairs() {
+        String emoji = "😀";
+        List<String> messages = chunk(4, "abc" + emoji + "d");
+
+        assertEquals(Arrays.asList("abc", emoji + "d"), messages);
+        for (String message : messages) {
+            assertFalse(Character.isHighSurrogate(message.charAt(message.length() - 1)));
+            assertFalse(Character.isLowSurrogate(message.charAt(0)));
+        }
+    }
+
+    @Test
+    public void closesAutoCloseableChunks() throws Exception {
+        boolean[] closed = new boolean[1];
+        Iterator<String> chunks = new CloseableIterator(Collections.singleton("chunk").iterator(), closed);
+
+        MessageChunker messageChunker = new MessageChunker(chunks);
+        messageChunker.close();
+        assertTrue(closed[0]);
+    }
+
+    private static List<String> chunk(int limit, String... chunks) {
+        List<String> messages = new ArrayList<>();
+        new MessageChunker(Arrays.asList(chunks).iterator(), limit).forEachRemaining(messages::add);
+        return messages;
+    }
+
+    private static class CloseableIterator implements Iterator<String>, AutoCloseable {
+
+        private final Iterator<String> iterator;
+        private final boolean[] closed;
+
+        private CloseableIterator(Iterator<String> iterator, boolean[] closed) {
+            this.iterator = iterator;
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed[0] = true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.vankka.jdacommands.object;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageTemplateTest {
+
+    @Test
+    public void rendersPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("{0} Missing permission, `{1}`");
+
+        assertEquals("! Missing permission, `Send Messages`", template.render("!", "Send Messages"));
+    }
+
+    @Test
+    public void keepsOtherBracesAndMissingArguments() {
+        MessageTemplate template = MessageTemplate.compile("{a} {} {0 {1} {0}");
+
+        assertEquals("{a} {} {0 {1} x", template.render("x"));
+    }
+
+    @Test
+    public void keepsOverlongIndexesAsText() {
+        MessageTemplate template = MessageTemplate.compile("{99999999999} {0}");
+
+        assertEquals("{99999999999} x", template.render("x"));
+    }
+}
@@ -0,0 +1,52 @@
+package dev.vankka.jdacommands.response;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class CapturingResponseSinkTest {
+
+    private static final MessageChannel CHANNEL = (MessageChannel) Proxy.newProxyInstance(
+            MessageChannel.class.getClassLoader(), new Class<?>[] {MessageChannel.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getIdLong"))
+                    return 1L;
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+    @Test
+    public void sendingFromCallbacksDoesNotNest() {
+        CapturingResponseSink sink = new CapturingResponseSink();
+        int count = 100_000;
+
+        sendSequentially(sink, IntStream.range(0, count).mapToObj(Integer::toString).iterator());
+
+        List<CapturingResponseSink.Response> responses = sink.getResponses("command");
+        assertEquals(count, responses.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.toString(i), responses.get(i).getContent());
+            assertEquals(i + 1, responses.get(i).getMessageId());
+        }
+    }
+
+    @Test
+    public void callbacksRunBeforeTheSendReturns() {
+        CapturingResponseSink sink = new CapturingResponseSink();
+        long[] sent = new long[1];
+
+        sink.sendMessage("command", CHANNEL, "message", messageId -> sent[0] = messageId);
+        assertEquals(1L, sent[0]);
+    }
+
+    // the next message is sent from the previous one's callback, like streamed results
+    private static void sendSequentially(CapturingResponseSink sink, Iterator<String> messages) {
+        if (messages.hasNext())
+            sink.sendMessage("command", CHANNEL, messages.next(), messageId -> sendSequentially(sink, messages));
+    }
+}
@@ -0,0 +1,183 @@
+package dev.vankka.jdacommands.scheduling;
+
+import dev.vankka.jdacommands.model.command.CostClass;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+public class CommandGovernorTest {
+
+    private final ManualExecutor cheapExecutor = new ManualExecutor();
+    private final ManualExecutor sharedExecutor = new ManualExecutor();
+    private final List<String> executed = new ArrayList<>();
+    private final List<String> rejected = new ArrayList<>();
+
+    @Test
+    public void cheapLaneIsIsolatedFromTheSharedLane() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 0);
+
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.HEAVY, 1L, "heavy"));
+        assertEquals(CommandGovernor.Submission.REJECTED, submit(governor, CostClass.STANDARD, 2L, "standard"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.CHEAP, 1L, "cheap"));
+        assertEquals(1, cheapExecutor.tasks.size());
+        assertEquals(1, sharedExecutor.tasks.size());
+
+        cheapExecutor.runAll();
+        assertEquals(Arrays.asList("cheap"), executed);
+        assertEquals(Arrays.asList("standard"), rejected);
+    }
+
+    @Test
+    public void heavyCommandsOnlyTakeTheirShareOfTheSharedLane() {
+        CommandGovernor governor = governor(1, 3, 1, 3, 10);
+
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.HEAVY, 0L, "heavy1"));
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.HEAVY, 0L, "heavy2"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "standard1"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "standard2"));
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.STANDARD, 0L, "standard3"));
+
+        // standard3 can't take heavy1's permit from heavy2, it's still waiting on the shared limit
+        sharedExecutor.runNext();
+        assertEquals(Arrays.asList("heavy1"), executed);
+        assertEquals(3, sharedExecutor.tasks.size());
+        sharedExecutor.runAll();
+        assertEquals(Arrays.asList("heavy1", "standard1", "standard2", "heavy2", "standard3"), executed);
+    }
+
+    @Test
+    public void guildsAreLimitedInTheSharedLane() {
+        CommandGovernor governor = governor(1, 10, 10, 2, 10);
+
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 1L, "guild1"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.HEAVY, 1L, "guild2"));
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.STANDARD, 1L, "guild3"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 2L, "other"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "direct1"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "direct2"));
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "direct3"));
+
+        sharedExecutor.runNext();
+        assertEquals(6, sharedExecutor.tasks.size());
+        sharedExecutor.runAll();
+        assertTrue(executed.contains("guild3"));
+        assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    public void fullQueueRejects() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 1);
+
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "accepted"));
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.STANDARD, 0L, "deferred"));
+        assertEquals(CommandGovernor.Submission.REJECTED, submit(governor, CostClass.STANDARD, 0L, "rejected"));
+        assertEquals(Arrays.asList("rejected"), rejected);
+
+        // the cheap lane has its own queue
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.CHEAP, 0L, "cheap1"));
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.CHEAP, 0L, "cheap2"));
+        assertEquals(CommandGovernor.Submission.REJECTED, submit(governor, CostClass.CHEAP, 0L, "cheap3"));
+        assertEquals(Arrays.asList("rejected", "cheap3"), rejected);
+    }
+
+    @Test
+    public void queuedTasksRunWhenPermitsAreReleased() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 10);
+
+        submit(governor, CostClass.STANDARD, 0L, "first");
+        submit(governor, CostClass.STANDARD, 0L, "second");
+        submit(governor, CostClass.STANDARD, 0L, "third");
+        assertEquals(1, sharedExecutor.tasks.size());
+
+        sharedExecutor.runNext();
+        assertEquals(Arrays.asList("first"), executed);
+        assertEquals(1, sharedExecutor.tasks.size());
+
+        sharedExecutor.runAll();
+        assertEquals(Arrays.asList("first", "second", "third"), executed);
+    }
+
+    @Test
+    public void failingTasksReleaseTheirPermit() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 10);
+
+        governor.submit(CostClass.STANDARD, 0L, () -> {
+            throw new IllegalStateException("Expected");
+        });
+        submit(governor, CostClass.STANDARD, 0L, "next");
+
+        sharedExecutor.runAll();
+        assertEquals(Arrays.asList("next"), executed);
+    }
+
+    @Test
+    public void deferredTasksRejectedByTheExecutorAreReported() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 10);
+
+        submit(governor, CostClass.STANDARD, 0L, "first");
+        assertEquals(CommandGovernor.Submission.DEFERRED, submit(governor, CostClass.STANDARD, 0L, "second"));
+
+        sharedExecutor.rejecting = true;
+        sharedExecutor.runNext();
+        assertEquals(Arrays.asList("first"), executed);
+        assertEquals(Arrays.asList("second"), rejected);
+
+        // the rejected task's permit was released
+        sharedExecutor.rejecting = false;
+        assertEquals(CommandGovernor.Submission.ACCEPTED, submit(governor, CostClass.STANDARD, 0L, "third"));
+    }
+
+    @Test
+    public void shutdownRejectsQueuedAndNewTasks() {
+        CommandGovernor governor = governor(1, 1, 1, 1, 10);
+
+        submit(governor, CostClass.STANDARD, 0L, "running");
+        submit(governor, CostClass.STANDARD, 0L, "queued");
+        governor.shutdown();
+
+        assertEquals(Arrays.asList("queued"), rejected);
+        assertEquals(CommandGovernor.Submission.REJECTED, submit(governor, CostClass.CHEAP, 0L, "new"));
+        assertEquals(Arrays.asList("queued", "new"), rejected);
+
+        sharedExecutor.runAll();
+        assertEquals(Arrays.asList("running"), executed);
+    }
+
+    private CommandGovernor governor(int maxCheap, int maxShared, int maxHeavy, int maxPerGuild, int maxQueued) {
+        return new CommandGovernor(cheapExecutor, sharedExecutor, maxCheap, maxShared, maxHeavy, maxPerGuild, maxQueued);
+    }
+
+    private CommandGovernor.Submission submit(CommandGovernor governor, CostClass costClass, long guildId, String name) {
+        return governor.submit(costClass, guildId, () -> executed.add(name), () -> rejected.add(name));
+    }
+
+    private static class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean rejecting = false;
+
+        @Override
+        public void execute(Runnable command) {
+            if (rejecting)
+                throw new RejectedExecutionException("Rejecting");
+            tasks.add(command);
+        }
+
+        private void runNext() {
+            tasks.remove().run();
+        }
+
+        private void runAll() {
+            while (!tasks.isEmpty())
+                runNext();
+        }
+    }
+}